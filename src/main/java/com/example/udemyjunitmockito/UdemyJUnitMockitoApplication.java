@@ -3,13 +3,21 @@ package com.example.udemyjunitmockito;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableCaching
 public class UdemyJUnitMockitoApplication {
 
+    private static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
         new SpringApplicationBuilder(UdemyJUnitMockitoApplication.class)
                 .web(WebApplicationType.NONE)
+                .applicationStartup(new BufferingApplicationStartup(STARTUP_STEPS))
                 .run(args);
     }
 }
@@ -0,0 +1,122 @@
+package com.example.udemyjunitmockito.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String EMPLOYEES_PATH = "/api/employees";
+    private static final String CHANGES_PATH = "/api/employees/changes";
+
+    private final boolean enabled;
+    private final AimdLimiter readLimiter;
+    private final AimdLimiter writeLimiter;
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(@Value("${employee.admission.enabled:true}") boolean enabled,
+                                  @Value("${employee.admission.read.initial-limit:50}") int readInitialLimit,
+                                  @Value("${employee.admission.read.max-limit:200}") int readMaxLimit,
+                                  @Value("${employee.admission.write.initial-limit:10}") int writeInitialLimit,
+                                  @Value("${employee.admission.write.max-limit:50}") int writeMaxLimit,
+                                  @Value("${employee.admission.min-limit:2}") int minLimit,
+                                  @Value("${employee.admission.latency-target-ms:250}") long latencyTargetMs,
+                                  @Value("${employee.admission.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${employee.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        long latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.enabled = enabled;
+        this.readLimiter = new AimdLimiter(readInitialLimit, minLimit, readMaxLimit, latencyTargetNanos, backoffRatio);
+        this.writeLimiter = new AimdLimiter(writeInitialLimit, minLimit, writeMaxLimit, latencyTargetNanos, backoffRatio);
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    public AimdLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    public AimdLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !path.startsWith(EMPLOYEES_PATH) || path.startsWith(CHANGES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AimdLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many concurrent requests, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private static final class ReleasingAsyncListener implements AsyncListener {
+        private final Runnable release;
+
+        private ReleasingAsyncListener(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
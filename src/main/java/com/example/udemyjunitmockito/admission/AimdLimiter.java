@@ -0,0 +1,74 @@
+package com.example.udemyjunitmockito.admission;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that grows by one after a full limit's worth of requests finished under the
+ * latency target and is cut by a fixed ratio when one of them does not.
+ * <p>
+ * Requests that were already running when the limit was cut were admitted under the old limit,
+ * so their slow completions do not cut it again; at most one decrease happens per latency window.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private int limit;
+    private int inFlight;
+    private int fastCompletions;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyTargetNanos, backoffRatio, System::nanoTime);
+    }
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio,
+                LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limit bounds must satisfy 1 <= min <= max, got min:" + minLimit + " max:" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos) {
+        boolean utilised = inFlight * 2 >= limit;
+        inFlight--;
+        if (latencyNanos > latencyTargetNanos) {
+            long now = nanoClock.getAsLong();
+            if (!decreased || now - latencyNanos - lastDecreaseNanos >= 0) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                fastCompletions = 0;
+                decreased = true;
+                lastDecreaseNanos = now;
+            }
+        } else if (utilised && ++fastCompletions >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+            fastCompletions = 0;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
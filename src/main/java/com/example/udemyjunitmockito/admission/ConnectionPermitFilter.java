@@ -0,0 +1,95 @@
+package com.example.udemyjunitmockito.admission;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets at most as many API requests run as the connection pool has connections. Extra requests
+ * wait on a fair semaphore for up to the permit timeout instead of queueing inside the pool.
+ * Only registered in virtual execution mode, where the servlet thread count no longer caps them.
+ * {@link #resize} follows the pool when adaptive sizing changes it.
+ */
+public class ConnectionPermitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/";
+    private static final String CHANGES_PATH = "/api/employees/changes";
+
+    private final ResizableSemaphore permits;
+    private final long timeoutMs;
+    private final String retryAfterSeconds;
+    private int permitCount;
+
+    public ConnectionPermitFilter(int permits, long timeoutMs, int retryAfterSeconds) {
+        this.permits = new ResizableSemaphore(permits);
+        this.permitCount = permits;
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Changes the number of permits. Shrinking takes effect as running requests release theirs.
+     */
+    public synchronized void resize(int newPermitCount) {
+        if (newPermitCount > permitCount) {
+            permits.release(newPermitCount - permitCount);
+        } else if (newPermitCount < permitCount) {
+            permits.reducePermits(permitCount - newPermitCount);
+        }
+        permitCount = newPermitCount;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(API_PATH) || path.startsWith(CHANGES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("No database connection available, retry later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+        private ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.udemyjunitmockito.archive;
+
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves employees that were soft-deleted longer than min-age ago from the hot employees table to
+ * employees_archive. Every chunk is copied and removed in its own short transaction and a run
+ * stops after max-chunks, so archiving never holds long locks on the hot table.
+ */
+@Slf4j
+@Component
+public class EmployeeArchiver {
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final int maxChunks;
+
+    public EmployeeArchiver(EmployeeRepository employeeRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${employee.archive.enabled:true}") boolean enabled,
+                            @Value("${employee.archive.min-age-seconds:3600}") long minAgeSeconds,
+                            @Value("${employee.archive.chunk-size:500}") int chunkSize,
+                            @Value("${employee.archive.max-chunks:20}") int maxChunks) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = Duration.ofSeconds(minAgeSeconds);
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.archive.interval-ms:60000}")
+    public void archiveOnSchedule() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    public int archive() {
+        Instant cutoff = Instant.now().minus(minAge);
+        int archived = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ids = employeeRepository.findDeletedIdsBefore(cutoff, PageRequest.of(0, chunkSize));
+                employeeRepository.archiveDeleted(ids);
+                return ids.size();
+            });
+            archived += moved == null ? 0 : moved;
+            if (moved == null || moved < chunkSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} deleted employees", archived);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.udemyjunitmockito.changefeed;
+
+public class ChangeFeedOverrunException extends RuntimeException {
+
+    public ChangeFeedOverrunException(long requestedSequence, long lastSequence) {
+        super("Change feed can not resume after sequence:" + requestedSequence + ", last published sequence:" + lastSequence);
+    }
+}
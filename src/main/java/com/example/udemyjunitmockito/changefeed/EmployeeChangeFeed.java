@@ -0,0 +1,164 @@
+package com.example.udemyjunitmockito.changefeed;
+
+import com.example.udemyjunitmockito.model.EmployeeChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class EmployeeChangeFeed {
+
+    private final EmployeeChangeRingBuffer ringBuffer;
+    private final long emitterTimeoutMs;
+    private final int batchSize;
+    private final long maxLag;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders;
+
+    public EmployeeChangeFeed(EmployeeChangeRingBuffer ringBuffer,
+                              @Value("${employee.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${employee.changes.batch-size:256}") int batchSize,
+                              @Value("${employee.changes.max-lag:4096}") long maxLag,
+                              @Value("${employee.changes.sender-threads:4}") int senderThreads) {
+        this.ringBuffer = ringBuffer;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.batchSize = batchSize;
+        this.maxLag = Math.min(maxLag, ringBuffer.capacity());
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "employee-change-feed");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SseEmitter subscribe(Long fromSequence) {
+        SseEmitter emitter = createEmitter();
+        long last = ringBuffer.lastSequence();
+        long from = fromSequence == null ? last : fromSequence;
+        if (!ringBuffer.isAvailable(from)) {
+            sendReset(emitter, last);
+            return emitter;
+        }
+        Subscription subscription = new Subscription(emitter, from);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    long slowestCursor() {
+        return subscriptions.stream()
+                .mapToLong(subscription -> subscription.cursor)
+                .min()
+                .orElse(ringBuffer.lastSequence());
+    }
+
+    @Scheduled(fixedDelayString = "${employee.changes.poll-interval-ms:100}")
+    public void dispatch() {
+        long last = ringBuffer.lastSequence();
+        for (Subscription subscription : subscriptions) {
+            if (last - subscription.cursor > maxLag) {
+                log.warn("Disconnecting slow change feed consumer at sequence {}, last sequence {}", subscription.cursor, last);
+                subscription.disconnected = true;
+                subscriptions.remove(subscription);
+                // a sender that is mid-send sends the reset itself once it notices the disconnect
+                if (subscription.sending.compareAndSet(false, true)) {
+                    senders.execute(() -> sendReset(subscription.emitter, last));
+                }
+            } else if (subscription.cursor < last && subscription.sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(() -> drain(subscription));
+                } catch (RejectedExecutionException e) {
+                    subscription.sending.set(false);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    /**
+     * Sends batches until the subscriber has caught up with the ring, so a consumer that keeps up
+     * is not limited to one batch per poll interval and pushed over max-lag by a sustained burst.
+     * A subscriber disconnected for lagging while this ran gets its reset here.
+     */
+    private void drain(Subscription subscription) {
+        try {
+            while (subscription.cursor < ringBuffer.lastSequence() && subscriptions.contains(subscription)) {
+                List<EmployeeChangeEvent> events = ringBuffer.read(subscription.cursor, batchSize);
+                if (events.isEmpty()) {
+                    break;
+                }
+                for (EmployeeChangeEvent event : events) {
+                    subscription.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getSequence()))
+                            .name(event.getType().name())
+                            .data(event));
+                    subscription.cursor = event.getSequence();
+                }
+            }
+        } catch (ChangeFeedOverrunException e) {
+            subscriptions.remove(subscription);
+            sendReset(subscription.emitter, ringBuffer.lastSequence());
+        } catch (IOException | IllegalStateException e) {
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+        } finally {
+            subscription.sending.set(false);
+        }
+        if (subscription.disconnected && subscription.sending.compareAndSet(false, true)) {
+            sendReset(subscription.emitter, ringBuffer.lastSequence());
+        }
+    }
+
+    private void sendReset(SseEmitter emitter, long lastSequence) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("RESET")
+                    .data(lastSequence));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean disconnected;
+
+        private Subscription(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
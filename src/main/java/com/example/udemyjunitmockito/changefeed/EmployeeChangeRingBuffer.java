@@ -0,0 +1,84 @@
+package com.example.udemyjunitmockito.changefeed;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeEvent;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer ring of employee changes. Producers claim a sequence with a single
+ * atomic increment and then fill the slot; readers never block producers and detect that they
+ * were lapped by comparing the sequence stored in the slot with the one they asked for.
+ */
+@Component
+public class EmployeeChangeRingBuffer {
+
+    private final AtomicReferenceArray<EmployeeChangeEvent> slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public EmployeeChangeRingBuffer(@Value("${employee.changes.buffer-size:8192}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public long publish(EmployeeChangeType type, long employeeId, Employee employee) {
+        Employee copy = employee == null ? null : Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+        long sequence = cursor.incrementAndGet();
+        slots.set(index(sequence), new EmployeeChangeEvent(sequence, type, employeeId, copy, Instant.now()));
+        return sequence;
+    }
+
+    public long lastSequence() {
+        return cursor.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public boolean isAvailable(long afterSequence) {
+        long last = cursor.get();
+        return afterSequence <= last && last - afterSequence <= capacity();
+    }
+
+    public List<EmployeeChangeEvent> read(long afterSequence, int maxEvents) {
+        if (!isAvailable(afterSequence)) {
+            throw new ChangeFeedOverrunException(afterSequence, cursor.get());
+        }
+        long last = Math.min(cursor.get(), afterSequence + maxEvents);
+        if (last <= afterSequence) {
+            return Collections.emptyList();
+        }
+        List<EmployeeChangeEvent> events = new ArrayList<>((int) (last - afterSequence));
+        for (long sequence = afterSequence + 1; sequence <= last; sequence++) {
+            EmployeeChangeEvent event = slots.get(index(sequence));
+            if (event == null || event.getSequence() < sequence) {
+                break;
+            }
+            if (event.getSequence() > sequence) {
+                throw new ChangeFeedOverrunException(afterSequence, cursor.get());
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
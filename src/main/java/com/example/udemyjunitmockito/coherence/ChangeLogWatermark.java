@@ -0,0 +1,73 @@
+package com.example.udemyjunitmockito.coherence;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Highest change log sequence below which every entry has been applied.
+ * Sequences are allocated when a change is written but become visible when it commits, so a lower
+ * sequence can appear after a higher one. The watermark therefore only moves over sequences that
+ * were seen; a gap is waited for up to gap-timeout before it is treated as a rolled back write.
+ * Not thread-safe; callers hold their own lock.
+ */
+public class ChangeLogWatermark {
+
+    private final long gapTimeoutNanos;
+    private final TreeSet<Long> seenAboveWatermark = new TreeSet<>();
+    private long watermark = -1;
+    private boolean waitingForGap;
+    private long gapObservedAt;
+
+    public ChangeLogWatermark(long gapTimeoutMs) {
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(gapTimeoutMs);
+    }
+
+    public long get() {
+        return watermark;
+    }
+
+    public boolean isInitialized() {
+        return watermark >= 0;
+    }
+
+    public void reset(long sequence) {
+        watermark = sequence;
+        seenAboveWatermark.clear();
+        waitingForGap = false;
+    }
+
+    /**
+     * Returns true the first time a sequence above the watermark is seen, so its change is applied once.
+     */
+    public boolean markSeen(long sequence) {
+        return sequence > watermark && seenAboveWatermark.add(sequence);
+    }
+
+    /**
+     * Moves the watermark over the seen sequences and returns how many gaps timed out on the way.
+     */
+    public int advance() {
+        int skippedGaps = 0;
+        while (!seenAboveWatermark.isEmpty()) {
+            long next = seenAboveWatermark.first();
+            if (next == watermark + 1) {
+                seenAboveWatermark.pollFirst();
+                watermark = next;
+                waitingForGap = false;
+                continue;
+            }
+            long now = System.nanoTime();
+            if (!waitingForGap) {
+                waitingForGap = true;
+                gapObservedAt = now;
+            }
+            if (now - gapObservedAt < gapTimeoutNanos) {
+                return skippedGaps;
+            }
+            skippedGaps++;
+            watermark = next - 1;
+            waitingForGap = false;
+        }
+        return skippedGaps;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.udemyjunitmockito.coherence;
+
+import com.example.udemyjunitmockito.model.Employee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Read-through cache of employees by id. Entries are stored and handed out as copies, because
+ * callers modify the employees they read. A load that overlaps an eviction is not kept, so a value
+ * read before a change can never be cached after the change was evicted.
+ */
+@Component
+public class EmployeeCache {
+
+    public static final String NAME = "employees";
+
+    private final Cache cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EmployeeCache(CacheManager cacheManager, @Value("${employee.cache.enabled:true}") boolean enabled) {
+        Cache managedCache = enabled ? cacheManager.getCache(NAME) : null;
+        this.cache = managedCache == null ? new NoOpCache(NAME) : managedCache;
+    }
+
+    public Optional<Employee> get(long id, LongFunction<Optional<Employee>> loader) {
+        Employee cached = cache.get(id, Employee.class);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long epoch = evictions.get();
+        Optional<Employee> loaded = loader.apply(id);
+        loaded.ifPresent(employee -> {
+            cache.put(id, copy(employee));
+            if (evictions.get() != epoch) {
+                cache.evict(id);
+            }
+        });
+        return loaded;
+    }
+
+    public void evict(long id) {
+        evictions.incrementAndGet();
+        cache.evict(id);
+    }
+
+    public void clear() {
+        evictions.incrementAndGet();
+        cache.clear();
+    }
+
+    private static Employee copy(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.udemyjunitmockito.coherence;
+
+import com.example.udemyjunitmockito.model.EmployeeChangeLogEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the local {@link EmployeeCache} coherent with writes made by other instances by polling
+ * the employee change log past the last sequence it has applied, tracked by a {@link ChangeLogWatermark}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EmployeeCacheCoherencePoller {
+
+    private final EmployeeChangeLog changeLog;
+    private final EmployeeCache employeeCache;
+    private final int batchSize;
+    private final Duration retention;
+    private final Timer invalidationLag;
+    private final Counter evictions;
+    private final Counter skippedGaps;
+    private final Counter failures;
+    private final ChangeLogWatermark watermark;
+
+    public EmployeeCacheCoherencePoller(EmployeeChangeLog changeLog,
+                                        EmployeeCache employeeCache,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${employee.cache.coherence.poll-interval-ms:500}") long pollIntervalMs,
+                                        @Value("${employee.cache.coherence.batch-size:1000}") int batchSize,
+                                        @Value("${employee.cache.coherence.gap-timeout-ms:5000}") long gapTimeoutMs,
+                                        @Value("${employee.cache.coherence.retention-ms:3600000}") long retentionMs) {
+        this.changeLog = changeLog;
+        this.employeeCache = employeeCache;
+        this.batchSize = batchSize;
+        this.watermark = new ChangeLogWatermark(gapTimeoutMs);
+        this.retention = Duration.ofMillis(retentionMs);
+        this.invalidationLag = Timer.builder("employee.cache.coherence.lag")
+                .description("Time from an employee change to its eviction from the local cache")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.evictions = meterRegistry.counter("employee.cache.coherence.evictions");
+        this.skippedGaps = meterRegistry.counter("employee.cache.coherence.gaps.skipped");
+        this.failures = meterRegistry.counter("employee.cache.coherence.poll.failures");
+        Gauge.builder("employee.cache.coherence.poll.interval", () -> pollIntervalMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("employee.cache.coherence.watermark", this, poller -> poller.watermark.get())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.cache.coherence.poll-interval-ms:500}")
+    public synchronized int poll() {
+        try {
+            if (!watermark.isInitialized()) {
+                watermark.reset(changeLog.lastSequence());
+                employeeCache.clear();
+                return 0;
+            }
+            List<EmployeeChangeLogEntry> entries = changeLog.readAfter(watermark.get(), batchSize);
+            int evicted = 0;
+            for (EmployeeChangeLogEntry entry : entries) {
+                if (watermark.markSeen(entry.getSequence())) {
+                    employeeCache.evict(entry.getEmployeeId());
+                    invalidationLag.record(Duration.between(entry.getChangedAt(), entry.getReadAt()).abs());
+                    evicted++;
+                }
+            }
+            evictions.increment(evicted);
+            skippedGaps.increment(watermark.advance());
+            return evicted;
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.warn("Could not poll employee changes after sequence {}, clearing the employee cache", watermark.get(), e);
+            employeeCache.clear();
+            return 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${employee.cache.coherence.prune-interval-ms:60000}")
+    public int prune() {
+        return changeLog.deleteBefore(Instant.now().minus(retention));
+    }
+
+    synchronized long getWatermark() {
+        return watermark.get();
+    }
+}
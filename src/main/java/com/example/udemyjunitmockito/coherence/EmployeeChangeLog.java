@@ -0,0 +1,80 @@
+package com.example.udemyjunitmockito.coherence;
+
+import com.example.udemyjunitmockito.model.EmployeeChangeLogEntry;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only log of employee writes in the employee_changes table. Writers append in the same
+ * transaction as the change itself, so a change is visible in the log exactly when it is visible
+ * in the employees table. Readers tell the database clock apart from their own by reading
+ * CURRENT_TIMESTAMP together with the entries.
+ */
+@Component
+public class EmployeeChangeLog {
+
+    private static final String APPEND_SQL =
+            "INSERT INTO employee_changes (employee_id, change_type, changed_at) VALUES (?, ?, CURRENT_TIMESTAMP)";
+    private static final String APPEND_EMAIL_DOMAIN_SQL =
+            "INSERT INTO employee_changes (employee_id, change_type, changed_at) " +
+            "SELECT id, ?, CURRENT_TIMESTAMP FROM employees " +
+            "WHERE id BETWEEN ? AND ? AND deleted_at IS NULL AND LOWER(email) LIKE ?";
+    private static final String READ_SQL =
+            "SELECT seq, employee_id, change_type, changed_at, CURRENT_TIMESTAMP AS read_at " +
+            "FROM employee_changes WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    private static final RowMapper<EmployeeChangeLogEntry> ENTRY_ROW_MAPPER = (rs, rowNum) -> new EmployeeChangeLogEntry(
+            rs.getLong("seq"),
+            rs.getLong("employee_id"),
+            EmployeeChangeType.valueOf(rs.getString("change_type")),
+            rs.getTimestamp("changed_at").toInstant(),
+            rs.getTimestamp("read_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(long employeeId, EmployeeChangeType type) {
+        jdbcTemplate.update(APPEND_SQL, employeeId, type.name());
+    }
+
+    public void appendAll(Collection<Long> employeeIds, EmployeeChangeType type) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(employeeIds.size());
+        employeeIds.forEach(employeeId -> args.add(new Object[]{employeeId, type.name()}));
+        jdbcTemplate.batchUpdate(APPEND_SQL, args);
+    }
+
+    /**
+     * Logs every live employee in the id range whose email belongs to the domain. Runs before the
+     * bulk statement that changes them, while the predicate still matches.
+     */
+    public int appendForEmailDomain(long fromId, long toId, String domain, EmployeeChangeType type) {
+        return jdbcTemplate.update(APPEND_EMAIL_DOMAIN_SQL, type.name(), fromId, toId, "%@" + domain);
+    }
+
+    public List<EmployeeChangeLogEntry> readAfter(long afterSequence, int limit) {
+        return jdbcTemplate.query(READ_SQL, ENTRY_ROW_MAPPER, afterSequence, limit);
+    }
+
+    public long lastSequence() {
+        Long sequence = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM employee_changes", Long.class);
+        return sequence == null ? 0 : sequence;
+    }
+
+    public int deleteBefore(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM employee_changes WHERE changed_at < ?", Timestamp.from(cutoff));
+    }
+}
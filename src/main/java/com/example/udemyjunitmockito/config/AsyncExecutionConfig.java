@@ -0,0 +1,60 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.datasource.PoolResizedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncExecutionConfig {
+
+    /**
+     * Runs the blocking JDBC work of the async API. Threads default to the Hikari pool size,
+     * so the pool is never asked for more connections than it has, and a full queue rejects the task.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor employeeDatabaseExecutor(@Value("${employee.async.threads:0}") int threads,
+                                                       @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                                                       @Value("${employee.async.queue-capacity:1000}") int queueCapacity,
+                                                       MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : maximumPoolSize;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("employee-db-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "employee.async", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Keeps the executor at the Hikari pool size when adaptive pool sizing changes it,
+     * unless employee.async.threads pins the thread count.
+     */
+    @Bean
+    public ApplicationListener<PoolResizedEvent> employeeDatabaseExecutorResizer(
+            @Value("${employee.async.threads:0}") int threads,
+            @Qualifier("employeeDatabaseExecutor") ThreadPoolExecutor employeeDatabaseExecutor) {
+        return event -> {
+            if (threads > 0) {
+                return;
+            }
+            int size = event.getMaximumPoolSize();
+            if (size > employeeDatabaseExecutor.getMaximumPoolSize()) {
+                employeeDatabaseExecutor.setMaximumPoolSize(size);
+                employeeDatabaseExecutor.setCorePoolSize(size);
+            } else {
+                employeeDatabaseExecutor.setCorePoolSize(size);
+                employeeDatabaseExecutor.setMaximumPoolSize(size);
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.udemyjunitmockito.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.datasource.routing")
+public class DataSourceRoutingProperties {
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private String lagQuery;
+    private long maxLagSeconds = 5;
+    private long healthCheckIntervalMs = 5000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.datasource.ReplicaHealthChecker;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Beans that work on their own schedule would never start if they were only created on first use,
+     * so they stay eager when spring.main.lazy-initialization is on.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter backgroundBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (ReplicaHealthChecker.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import com.example.udemyjunitmockito.service.impl.ShardedEmployeeServiceImpl;
+import com.example.udemyjunitmockito.sharding.ShardDataSources;
+import com.example.udemyjunitmockito.sharding.ShardedEmployeeStore;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "employee.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardScatterExecutor(ShardingProperties properties) {
+        return Executors.newFixedThreadPool(properties.getScatterThreads());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(ShardingProperties properties, MeterRegistry meterRegistry) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource shardDataSource = new HikariDataSource();
+            shardDataSource.setPoolName("shard-" + shards.size());
+            shardDataSource.setJdbcUrl(shard.getUrl());
+            shardDataSource.setUsername(shard.getUsername());
+            shardDataSource.setPassword(shard.getPassword());
+            shardDataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shardDataSource.setMetricRegistry(meterRegistry);
+            shards.add(shardDataSource);
+        }
+        return new ShardDataSources(shards);
+    }
+
+    @Bean
+    public ShardedEmployeeStore shardedEmployeeStore(DataSource dataSource, ShardingProperties properties,
+                                                     ShardDataSources shardDataSources,
+                                                     ExecutorService shardScatterExecutor) {
+        if (properties.isMigrate()) {
+            shardDataSources.migrate();
+        }
+        return new ShardedEmployeeStore(dataSource, shardDataSources.getAll(), shardScatterExecutor);
+    }
+
+    @Bean
+    @Primary
+    public EmployeeService shardedEmployeeService(ShardedEmployeeStore shardedEmployeeStore,
+                                                  EmployeeChangeRingBuffer changeBuffer) {
+        return new ShardedEmployeeServiceImpl(shardedEmployeeStore, changeBuffer);
+    }
+}
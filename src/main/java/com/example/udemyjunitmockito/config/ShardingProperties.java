@@ -0,0 +1,27 @@
+package com.example.udemyjunitmockito.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.sharding")
+public class ShardingProperties {
+    private boolean enabled;
+    private boolean migrate = true;
+    private int scatterThreads = 8;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.admission.ConnectionPermitFilter;
+import com.example.udemyjunitmockito.datasource.PoolResizedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * employee.execution.mode=virtual serves every request on its own virtual thread.
+ * The build targets Java 17, so the executor is looked up reflectively and startup fails on older runtimes.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "employee.execution.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    static final int VIRTUAL_THREADS_FEATURE_VERSION = 21;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        if (Runtime.version().feature() < VIRTUAL_THREADS_FEATURE_VERSION) {
+            throw new IllegalStateException("employee.execution.mode=virtual requires Java " + VIRTUAL_THREADS_FEATURE_VERSION
+                    + " or newer, running on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on " + Runtime.version(), e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> {
+            log.info("Serving requests on virtual threads");
+            protocolHandler.setExecutor(virtualThreadExecutor);
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPermitFilter> connectionPermitFilter(
+            @Value("${employee.execution.connection-permits:0}") int connectionPermits,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${employee.execution.permit-timeout-ms:1000}") long permitTimeoutMs,
+            @Value("${employee.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        int permits = connectionPermits > 0 ? connectionPermits : maximumPoolSize;
+        FilterRegistrationBean<ConnectionPermitFilter> registration =
+                new FilterRegistrationBean<>(new ConnectionPermitFilter(permits, permitTimeoutMs, retryAfterSeconds));
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Keeps the permits at the Hikari pool size when adaptive pool sizing changes it,
+     * unless employee.execution.connection-permits pins the count.
+     */
+    @Bean
+    public ApplicationListener<PoolResizedEvent> connectionPermitResizer(
+            @Value("${employee.execution.connection-permits:0}") int connectionPermits,
+            FilterRegistrationBean<ConnectionPermitFilter> connectionPermitFilter) {
+        return event -> {
+            if (connectionPermits <= 0) {
+                connectionPermitFilter.getFilter().resize(event.getMaximumPoolSize());
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobRequest;
+import com.example.udemyjunitmockito.service.BulkJobService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/jobs")
+public class BulkJobController {
+
+    private BulkJobService jobService;
+
+    @PostMapping
+    public ResponseEntity<BulkJob> submitJob(@RequestBody BulkJobRequest request) {
+        return new ResponseEntity<>(jobService.submit(request), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public List<BulkJob> getJobs() {
+        return jobService.getJobs();
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BulkJob> getJob(@PathVariable String jobId) {
+        return jobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<BulkJob> getResult(@PathVariable String jobId) {
+        return jobService.getJob(jobId)
+                .map(job -> new ResponseEntity<>(job, job.getStatus().isFinished() ? HttpStatus.OK : HttpStatus.ACCEPTED))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<BulkJob> cancelJob(@PathVariable String jobId) {
+        return jobService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
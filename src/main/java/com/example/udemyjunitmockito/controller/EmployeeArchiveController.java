@@ -0,0 +1,40 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.model.ArchivedEmployee;
+import com.example.udemyjunitmockito.service.EmployeeArchiveService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/employees/archive")
+public class EmployeeArchiveController {
+
+    private EmployeeArchiveService archiveService;
+
+    @GetMapping
+    public List<ArchivedEmployee> getArchivedEmployees(@RequestParam(required = false) String email,
+                                                       @RequestParam(defaultValue = "0") int page,
+                                                       @RequestParam(defaultValue = "100") int size) {
+        if (email != null) {
+            return archiveService.getArchivedEmployeesByEmail(email);
+        }
+        return archiveService.getArchivedEmployees(page, size);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ArchivedEmployee> getArchivedEmployeeById(@PathVariable long id) {
+        return archiveService.getArchivedEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/run")
+    public Map<String, Integer> archiveDeletedEmployees() {
+        return Map.of("archived", archiveService.archiveDeletedEmployees());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.exception.IdempotencyKeyInProgressException;
+import com.example.udemyjunitmockito.exception.IdempotencyKeyReuseException;
+import com.example.udemyjunitmockito.idempotency.IdempotencyStore;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.AsyncEmployeeService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/async/employees")
+public class EmployeeAsyncController {
+
+    private AsyncEmployeeService asyncEmployeeService;
+    private IdempotencyStore idempotencyStore;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<Employee> createEmployee(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                      @RequestBody Employee employee) {
+        if (idempotencyKey == null) {
+            return asyncEmployeeService.saveEmployee(employee);
+        }
+        String fingerprint = String.join("\n", employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        return idempotencyStore.executeAsync(idempotencyKey, fingerprint, () -> asyncEmployeeService.saveEmployee(employee));
+    }
+
+    @GetMapping
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return asyncEmployeeService.getAllEmployees();
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable long id) {
+        return asyncEmployeeService.getEmployeeById(id)
+                .thenApply(employee -> employee
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> updateEmployee(@PathVariable long id,
+                                                                      @RequestBody Employee employee) {
+        return asyncEmployeeService.updateEmployee(id, employee)
+                .thenApply(updatedEmployee -> updatedEmployee
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<String>> deleteEmployee(@PathVariable long id) {
+        return asyncEmployeeService.deleteEmployee(id)
+                .thenApply(deleted -> new ResponseEntity<>("Employee successfully deleted!", HttpStatus.OK));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException exception) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>("Too many queued requests, retry later", headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReuse(IdempotencyKeyReuseException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException exception) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(exception.getMessage(), headers, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.exception.BatchOperationException;
+import com.example.udemyjunitmockito.model.EmployeeOperation;
+import com.example.udemyjunitmockito.model.EmployeeOperationResult;
+import com.example.udemyjunitmockito.service.EmployeeBatchService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/employees/batch")
+public class EmployeeBatchController {
+
+    private EmployeeBatchService batchService;
+
+    @PostMapping
+    public List<EmployeeOperationResult> executeBatch(@RequestBody List<EmployeeOperation> operations) {
+        return batchService.executeBatch(operations);
+    }
+
+    @ExceptionHandler(BatchOperationException.class)
+    public ResponseEntity<List<EmployeeOperationResult>> handleRejectedBatch(BatchOperationException exception) {
+        return new ResponseEntity<>(exception.getResults(), HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeFeed;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/employees/changes")
+public class EmployeeChangeFeedController {
+
+    private EmployeeChangeFeed changeFeed;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long from,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(from != null ? from : lastEventId);
+    }
+}
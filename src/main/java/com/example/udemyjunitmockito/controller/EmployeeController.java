@@ -1,8 +1,12 @@
 package com.example.udemyjunitmockito.controller;
 
+import com.example.udemyjunitmockito.exception.IdempotencyKeyInProgressException;
+import com.example.udemyjunitmockito.exception.IdempotencyKeyReuseException;
+import com.example.udemyjunitmockito.idempotency.IdempotencyStore;
 import com.example.udemyjunitmockito.model.Employee;
 import com.example.udemyjunitmockito.service.EmployeeService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,11 +19,17 @@ import java.util.List;
 public class EmployeeController {
 
     private EmployeeService employeeService;
+    private IdempotencyStore idempotencyStore;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee) {
-        return employeeService.saveEmployee(employee);
+    public Employee createEmployee(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                   @RequestBody Employee employee) {
+        if (idempotencyKey == null) {
+            return employeeService.saveEmployee(employee);
+        }
+        String fingerprint = String.join("\n", employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        return idempotencyStore.execute(idempotencyKey, fingerprint, () -> employeeService.saveEmployee(employee));
     }
 
     @GetMapping
@@ -55,5 +65,17 @@ public class EmployeeController {
         return new ResponseEntity<String>("Employee successfully deleted!", HttpStatus.OK);
     }
 
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReuse(IdempotencyKeyReuseException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException exception) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(exception.getMessage(), headers, HttpStatus.CONFLICT);
+    }
+
 
 }
@@ -0,0 +1,62 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.importer.EmployeeCsvImporter;
+import com.example.udemyjunitmockito.model.EmployeeImportReport;
+import lombok.AllArgsConstructor;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/employees/import")
+public class EmployeeImportController {
+
+    private EmployeeCsvImporter csvImporter;
+
+    @PostMapping
+    public ResponseEntity<EmployeeImportReport> importEmployees(@RequestParam(required = false) String importId,
+                                                                HttpServletRequest request) throws IOException, FileUploadException {
+        EmployeeImportReport report = csvImporter.start(importId);
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            return toResponse(csvImporter.importCsv(request.getInputStream(), report));
+        }
+        FileItemIterator items = new ServletFileUpload().getItemIterator(request);
+        while (items.hasNext()) {
+            FileItemStream item = items.next();
+            if (!item.isFormField()) {
+                try (InputStream input = item.openStream()) {
+                    return toResponse(csvImporter.importCsv(input, report));
+                }
+            }
+        }
+        report.fail("Multipart request does not contain a file");
+        return new ResponseEntity<>(report, HttpStatus.BAD_REQUEST);
+    }
+
+    @GetMapping
+    public List<EmployeeImportReport> getImports() {
+        return csvImporter.getReports();
+    }
+
+    @GetMapping("/{importId}")
+    public ResponseEntity<EmployeeImportReport> getImport(@PathVariable String importId) {
+        return csvImporter.getReport(importId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<EmployeeImportReport> toResponse(EmployeeImportReport report) {
+        HttpStatus status = report.getStatus() == EmployeeImportReport.Status.FAILED ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return new ResponseEntity<>(report, status);
+    }
+}
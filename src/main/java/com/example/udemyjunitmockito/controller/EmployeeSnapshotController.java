@@ -0,0 +1,43 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.SnapshotFootprint;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshotStore;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "employee.snapshot", name = "enabled", havingValue = "true")
+@RequestMapping("/api/employees/snapshot")
+public class EmployeeSnapshotController {
+
+    private EmployeeSnapshotStore snapshotStore;
+
+    @GetMapping
+    public List<Employee> getAllEmployees(@RequestParam(defaultValue = "0") int offset,
+                                          @RequestParam(defaultValue = "1000") int limit) {
+        return snapshotStore.current().list(offset, limit);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable long id) {
+        return snapshotStore.current().findById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/count")
+    public int countEmployees() {
+        return snapshotStore.current().size();
+    }
+
+    @GetMapping("/footprint")
+    public SnapshotFootprint getFootprint() {
+        return snapshotStore.current().footprint();
+    }
+}
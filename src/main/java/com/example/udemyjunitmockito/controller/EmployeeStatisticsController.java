@@ -0,0 +1,39 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.model.AggregationMode;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import com.example.udemyjunitmockito.service.EmployeeAggregationService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/employees/stats")
+public class EmployeeStatisticsController {
+
+    private EmployeeAggregationService aggregationService;
+
+    @GetMapping("/email-domains")
+    public List<EmployeeCount> countByEmailDomain(@RequestParam(defaultValue = "DATABASE") AggregationMode mode) {
+        return aggregationService.countByEmailDomain(mode);
+    }
+
+    @GetMapping("/last-name-initials")
+    public List<EmployeeCount> countByLastNameInitial(@RequestParam(defaultValue = "DATABASE") AggregationMode mode) {
+        return aggregationService.countByLastNameInitial(mode);
+    }
+
+    @GetMapping("/first-names")
+    public List<EmployeeCount> countByFirstName(@RequestParam(defaultValue = "DATABASE") AggregationMode mode) {
+        return aggregationService.countByFirstName(mode);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleUnavailableMode(IllegalStateException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeUpsertService;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/employees/upsert")
+public class EmployeeUpsertController {
+
+    private EmployeeUpsertService upsertService;
+
+    @PutMapping
+    public Employee upsertEmployee(@RequestBody Employee employee) {
+        return upsertService.upsertEmployee(employee);
+    }
+
+    @PutMapping("/batch")
+    public List<Employee> upsertEmployees(@RequestBody List<Employee> employees) {
+        return upsertService.upsertEmployees(employees);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.udemyjunitmockito.datasource;
+
+/**
+ * Decides the next maximum pool size from one interval of pool statistics.
+ * Callers having waited longer than the acquire target means the pool is the bottleneck, so it grows.
+ * A mostly idle pool with nobody waiting shrinks slowly. Connection usage time is not an input:
+ * long-running bulk and import work holds connections for seconds by design, and shrinking on it
+ * would starve exactly that work.
+ */
+public class AdaptivePoolSizer {
+
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final long acquireTargetNanos;
+
+    public AdaptivePoolSizer(int minSize, int maxSize, int step, long acquireTargetNanos) {
+        if (minSize < 1 || maxSize < minSize || step < 1) {
+            throw new IllegalArgumentException("Expected 1 <= minSize <= maxSize and step >= 1");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        this.acquireTargetNanos = acquireTargetNanos;
+    }
+
+    public int nextSize(int currentSize, int active, int pending, double acquireMeanNanos) {
+        int size;
+        if (acquireMeanNanos > acquireTargetNanos) {
+            size = currentSize + step;
+        } else if (pending == 0 && active < currentSize / 2) {
+            size = currentSize - 1;
+        } else {
+            size = currentSize;
+        }
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.udemyjunitmockito.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically feeds the acquire timer of the primary Hikari pool into {@link AdaptivePoolSizer},
+ * applies the result through the pool's config MXBean and announces it with a {@link PoolResizedEvent}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employee.pool.adaptive", name = "enabled", havingValue = "true")
+public class AdaptivePoolSizingController {
+
+    private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AdaptivePoolSizer sizer;
+    private final TimerDelta acquire = new TimerDelta();
+
+    public AdaptivePoolSizingController(HikariDataSource dataSource,
+                                        MeterRegistry meterRegistry,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${employee.pool.adaptive.min-size:2}") int minSize,
+                                        @Value("${employee.pool.adaptive.max-size:50}") int maxSize,
+                                        @Value("${employee.pool.adaptive.step:2}") int step,
+                                        @Value("${employee.pool.adaptive.acquire-target-ms:5}") long acquireTargetMs) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.sizer = new AdaptivePoolSizer(minSize, maxSize, step, TimeUnit.MILLISECONDS.toNanos(acquireTargetMs));
+    }
+
+    @Scheduled(fixedDelayString = "${employee.pool.adaptive.interval-ms:10000}")
+    public void adjust() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        double acquireMean = acquire.mean(timer(ACQUIRE_TIMER));
+        int currentSize = config.getMaximumPoolSize();
+        int nextSize = sizer.nextSize(currentSize, pool.getActiveConnections(), pool.getThreadsAwaitingConnection(),
+                acquireMean);
+        if (nextSize != currentSize) {
+            log.info("Resizing pool {} from {} to {} (acquire mean {} us)", config.getPoolName(),
+                    currentSize, nextSize, (long) acquireMean / 1000);
+            if (config.getMinimumIdle() > nextSize) {
+                config.setMinimumIdle(nextSize);
+            }
+            config.setMaximumPoolSize(nextSize);
+            eventPublisher.publishEvent(new PoolResizedEvent(this, nextSize));
+        }
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.find(name).tag("pool", dataSource.getPoolName()).timer();
+    }
+
+    /**
+     * Mean of the samples recorded since the previous call.
+     */
+    private static final class TimerDelta {
+        private long count;
+        private double totalNanos;
+
+        double mean(Timer timer) {
+            if (timer == null) {
+                return 0;
+            }
+            long newCount = timer.count();
+            double newTotal = timer.totalTime(TimeUnit.NANOSECONDS);
+            long samples = newCount - count;
+            double mean = samples > 0 ? (newTotal - totalNanos) / samples : 0;
+            count = newCount;
+            totalNanos = newTotal;
+            return mean;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.udemyjunitmockito.datasource;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after the primary pool's maximum size changed, so limits derived from it can follow.
+ */
+public class PoolResizedEvent extends ApplicationEvent {
+
+    private final int maximumPoolSize;
+
+    public PoolResizedEvent(Object source, int maximumPoolSize) {
+        super(source);
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.udemyjunitmockito.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round robin, and everything
+ * else to the primary. A replica that fails to hand out a connection is marked unhealthy and the
+ * request falls back to the primary. Must be wrapped in a LazyConnectionDataSourceProxy so the
+ * read-only flag of the transaction is known when the physical connection is fetched.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Replica replica = nextHealthyReplica();
+            if (replica != null) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    log.warn("Replica connection failed, falling back to primary", e);
+                    replica.healthy = false;
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    public DataSource getReplica(int index) {
+        return replicas.get(index).dataSource;
+    }
+
+    public boolean isReplicaHealthy(int index) {
+        return replicas.get(index).healthy;
+    }
+
+    public void setReplicaHealthy(int index, boolean healthy) {
+        Replica replica = replicas.get(index);
+        if (replica.healthy != healthy) {
+            log.info("Replica {} is now {}", index, healthy ? "healthy" : "unhealthy");
+        }
+        replica.healthy = healthy;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
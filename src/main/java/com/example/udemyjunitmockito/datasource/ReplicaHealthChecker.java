@@ -0,0 +1,53 @@
+package com.example.udemyjunitmockito.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Marks replicas unhealthy when they stop answering or, if a lag query is configured, when the
+ * reported replication lag in seconds is above the allowed maximum.
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    public ReplicaHealthChecker(ReadWriteRoutingDataSource routingDataSource, String lagQuery, long maxLagSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public void check() {
+        for (int index = 0; index < routingDataSource.replicaCount(); index++) {
+            routingDataSource.setReplicaHealthy(index, isHealthy(index));
+        }
+    }
+
+    private boolean isHealthy(int index) {
+        try (Connection connection = routingDataSource.getReplica(index).getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                long lag = resultSet.getLong(1);
+                return !resultSet.wasNull() && lag <= maxLagSeconds;
+            }
+        } catch (SQLException e) {
+            log.debug("Replica {} health check failed", index, e);
+            return false;
+        }
+    }
+}
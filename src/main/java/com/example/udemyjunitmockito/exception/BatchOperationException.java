@@ -0,0 +1,19 @@
+package com.example.udemyjunitmockito.exception;
+
+import com.example.udemyjunitmockito.model.EmployeeOperationResult;
+
+import java.util.List;
+
+public class BatchOperationException extends RuntimeException {
+
+    private final List<EmployeeOperationResult> results;
+
+    public BatchOperationException(String message, List<EmployeeOperationResult> results) {
+        super(message);
+        this.results = results;
+    }
+
+    public List<EmployeeOperationResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.udemyjunitmockito.groupcommit;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collects single employee creates for up to the configured window or batch size and stores
+ * them in one transaction, so a burst of creates pays for one commit instead of one per row.
+ */
+@Slf4j
+@Component
+public class EmployeeGroupCommitter {
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long windowNanos;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary flushSize;
+    private final Timer flushLatency;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public EmployeeGroupCommitter(EmployeeRepository employeeRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${employee.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${employee.group-commit.batch-size:100}") int batchSize,
+                                  @Value("${employee.group-commit.window-ms:5}") long windowMs,
+                                  @Value("${employee.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("employee.group.commit.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("employee.group.commit.flush.size")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("employee.group.commit.flush.latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "employee-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public CompletableFuture<Employee> submit(Employee employee) {
+        PendingCreate pending = new PendingCreate(employee);
+        if (!running || !queue.offer(pending)) {
+            pending.result.completeExceptionally(new RejectedExecutionException("Group commit queue is full or stopped"));
+        }
+        return pending.result;
+    }
+
+    private void run() {
+        List<PendingCreate> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.forEach(pending -> pending.result.completeExceptionally(new IllegalStateException("Group commit flush aborted")));
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<PendingCreate> batch) {
+        flushSize.record(batch.size());
+        flushLatency.record(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveBatch(batch));
+            } catch (RuntimeException e) {
+                log.warn("Group commit of {} employees failed, retrying one by one", batch.size(), e);
+                batch.forEach(this::saveOne);
+            }
+        });
+        for (PendingCreate pending : batch) {
+            if (pending.saved != null) {
+                pending.result.complete(pending.saved);
+            } else {
+                pending.result.completeExceptionally(pending.failure);
+            }
+        }
+        batch.clear();
+    }
+
+    private void saveBatch(List<PendingCreate> batch) {
+        Set<String> emails = batch.stream()
+                .map(pending -> pending.employee.getEmail())
+                .collect(Collectors.toSet());
+        employeeRepository.releaseDeletedEmails(emails);
+        Set<String> existingEmails = employeeRepository.findByEmailIn(emails).stream()
+                .map(employee -> EmailKey.normalize(employee.getEmail()))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<PendingCreate> accepted = new ArrayList<>(batch.size());
+        for (PendingCreate pending : batch) {
+            pending.saved = null;
+            pending.failure = null;
+            if (existingEmails.add(EmailKey.normalize(pending.employee.getEmail()))) {
+                accepted.add(pending);
+            } else {
+                pending.failure = duplicate(pending.employee);
+            }
+        }
+        List<Employee> saved = employeeRepository.saveAll(accepted.stream()
+                .map(pending -> pending.employee)
+                .collect(Collectors.toList()));
+        Iterator<Employee> savedIterator = saved.iterator();
+        accepted.forEach(pending -> pending.saved = savedIterator.next());
+    }
+
+    private void saveOne(PendingCreate pending) {
+        pending.saved = null;
+        try {
+            pending.failure = null;
+            transactionTemplate.executeWithoutResult(status -> saveBatch(List.of(pending)));
+        } catch (RuntimeException e) {
+            pending.failure = e;
+        }
+    }
+
+    private static ResourceNotFoundException duplicate(Employee employee) {
+        return new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+    }
+
+    static final class PendingCreate {
+        private final Employee employee;
+        private final CompletableFuture<Employee> result = new CompletableFuture<>();
+        private Employee saved;
+        private RuntimeException failure;
+
+        PendingCreate(Employee employee) {
+            this.employee = employee;
+        }
+
+        CompletableFuture<Employee> getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.udemyjunitmockito.grpc;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the employee gRPC endpoint on its own port next to the HTTP server. Calls execute on a
+ * fixed pool because every handler blocks on the database, and each connection is limited to
+ * max-concurrent-calls-per-connection open calls. On shutdown the server stops taking new calls
+ * and gives running ones shutdown-timeout to finish.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.grpc.enabled", havingValue = "true")
+public class EmployeeGrpcServer implements SmartLifecycle {
+
+    private final EmployeeGrpcService grpcService;
+    private final int port;
+    private final int threads;
+    private final int maxConcurrentCalls;
+    private final long shutdownTimeoutMs;
+    private Server server;
+    private ExecutorService executor;
+
+    public EmployeeGrpcServer(EmployeeGrpcService grpcService,
+                              @Value("${employee.grpc.port:9090}") int port,
+                              @Value("${employee.grpc.threads:16}") int threads,
+                              @Value("${employee.grpc.max-concurrent-calls-per-connection:100}") int maxConcurrentCalls,
+                              @Value("${employee.grpc.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.grpcService = grpcService;
+        this.port = port;
+        this.threads = threads;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @Override
+    public synchronized void start() {
+        executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("employee-grpc-"));
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .executor(executor)
+                    .maxConcurrentCallsPerConnection(maxConcurrentCalls)
+                    .addService(grpcService)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new UncheckedIOException("Could not start employee gRPC server on port " + port, e);
+        }
+        log.info("Employee gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getPort();
+    }
+}
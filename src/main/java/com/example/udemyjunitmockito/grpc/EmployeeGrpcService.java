@@ -0,0 +1,224 @@
+package com.example.udemyjunitmockito.grpc;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.grpc.proto.CreateEmployeeFailure;
+import com.example.udemyjunitmockito.grpc.proto.CreateEmployeesResponse;
+import com.example.udemyjunitmockito.grpc.proto.DeleteEmployeeRequest;
+import com.example.udemyjunitmockito.grpc.proto.DeleteEmployeeResponse;
+import com.example.udemyjunitmockito.grpc.proto.EmployeeMessage;
+import com.example.udemyjunitmockito.grpc.proto.EmployeeServiceGrpc;
+import com.example.udemyjunitmockito.grpc.proto.ExportEmployeesRequest;
+import com.example.udemyjunitmockito.grpc.proto.GetEmployeeRequest;
+import com.example.udemyjunitmockito.grpc.proto.ListEmployeesRequest;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * gRPC endpoint for the operations of {@link EmployeeService}. It shares the service layer with
+ * EmployeeController, so caching, change publishing and group commit apply to both transports.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.grpc.enabled", havingValue = "true")
+public class EmployeeGrpcService extends EmployeeServiceGrpc.EmployeeServiceImplBase {
+
+    private static final int MAX_EXPORT_PAGE_SIZE = 10_000;
+
+    private final EmployeeService employeeService;
+    private final int exportPageSize;
+
+    public EmployeeGrpcService(EmployeeService employeeService,
+                               @Value("${employee.grpc.export-page-size:1000}") int exportPageSize) {
+        this.employeeService = employeeService;
+        this.exportPageSize = exportPageSize;
+    }
+
+    @Override
+    public void createEmployee(EmployeeMessage request, StreamObserver<EmployeeMessage> responseObserver) {
+        unary(responseObserver, () -> {
+            Employee employee = EmployeeMessages.toEmployee(request);
+            employee.setId(0);
+            return EmployeeMessages.toMessage(employeeService.saveEmployee(employee));
+        });
+    }
+
+    @Override
+    public void getEmployee(GetEmployeeRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        unary(responseObserver, () -> employeeService.getEmployeeById(request.getId())
+                .map(EmployeeMessages::toMessage)
+                .orElseThrow(() -> notFound(request.getId())));
+    }
+
+    @Override
+    public void updateEmployee(EmployeeMessage request, StreamObserver<EmployeeMessage> responseObserver) {
+        unary(responseObserver, () -> employeeService.getEmployeeById(request.getId())
+                .map(savedEmployee -> {
+                    Employee employee = EmployeeMessages.toEmployee(request);
+                    savedEmployee.setFirstName(employee.getFirstName());
+                    savedEmployee.setLastName(employee.getLastName());
+                    savedEmployee.setEmail(employee.getEmail());
+                    return EmployeeMessages.toMessage(employeeService.updateEmployee(savedEmployee));
+                })
+                .orElseThrow(() -> notFound(request.getId())));
+    }
+
+    @Override
+    public void deleteEmployee(DeleteEmployeeRequest request, StreamObserver<DeleteEmployeeResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            employeeService.deleteEmployee(request.getId());
+            return DeleteEmployeeResponse.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public void listEmployees(ListEmployeesRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        stream(new EmployeeStream((ServerCallStreamObserver<EmployeeMessage>) responseObserver, 0, Integer.MAX_VALUE,
+                lastId -> employeeService.getAllEmployees()));
+    }
+
+    @Override
+    public void exportEmployees(ExportEmployeesRequest request, StreamObserver<EmployeeMessage> responseObserver) {
+        int pageSize = request.getPageSize() <= 0 ? exportPageSize : Math.min(request.getPageSize(), MAX_EXPORT_PAGE_SIZE);
+        stream(new EmployeeStream((ServerCallStreamObserver<EmployeeMessage>) responseObserver, request.getAfterId(), pageSize,
+                lastId -> employeeService.getEmployeesAfter(lastId, pageSize)));
+    }
+
+    private static void stream(EmployeeStream employeeStream) {
+        employeeStream.observer.setOnCancelHandler(employeeStream::cancel);
+        employeeStream.observer.setOnReadyHandler(employeeStream);
+    }
+
+    @Override
+    public StreamObserver<EmployeeMessage> createEmployees(StreamObserver<CreateEmployeesResponse> responseObserver) {
+        return new StreamObserver<>() {
+            private final CreateEmployeesResponse.Builder response = CreateEmployeesResponse.newBuilder();
+            private int index;
+
+            @Override
+            public void onNext(EmployeeMessage message) {
+                Employee employee = EmployeeMessages.toEmployee(message);
+                employee.setId(0);
+                try {
+                    employeeService.saveEmployee(employee);
+                    response.setCreated(response.getCreated() + 1);
+                } catch (RuntimeException e) {
+                    response.addFailures(CreateEmployeeFailure.newBuilder()
+                            .setIndex(index)
+                            .setEmail(message.getEmail())
+                            .setMessage(String.valueOf(toStatus(e).getStatus().getDescription())));
+                }
+                index++;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Bulk create stream failed after {} employees", index, t);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(response.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private static StatusRuntimeException notFound(long id) {
+        return Status.NOT_FOUND.withDescription("Employee not found with given id:" + id).asRuntimeException();
+    }
+
+    static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException) {
+            return (StatusRuntimeException) e;
+        }
+        if (e instanceof ResourceNotFoundException || e instanceof DataIntegrityViolationException) {
+            return Status.ALREADY_EXISTS.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof EmptyResultDataAccessException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.warn("Employee gRPC call failed", e);
+        return Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asRuntimeException();
+    }
+
+    /**
+     * Sends employees page by page while the client keeps up. Messages are only written, and pages
+     * only read, when the transport is ready for more, so a slow client never makes the server buffer
+     * the whole stream. A page shorter than the page size is the last one.
+     */
+    private static final class EmployeeStream implements Runnable {
+        private final ServerCallStreamObserver<EmployeeMessage> observer;
+        private final int pageSize;
+        private final LongFunction<List<Employee>> nextPage;
+        private Iterator<Employee> page = Collections.emptyIterator();
+        private long lastId;
+        private boolean lastPage;
+        private volatile boolean finished;
+
+        private EmployeeStream(ServerCallStreamObserver<EmployeeMessage> observer, long afterId, int pageSize,
+                               LongFunction<List<Employee>> nextPage) {
+            this.observer = observer;
+            this.lastId = afterId;
+            this.pageSize = pageSize;
+            this.nextPage = nextPage;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!finished && observer.isReady()) {
+                    if (page.hasNext()) {
+                        Employee employee = page.next();
+                        lastId = employee.getId();
+                        observer.onNext(EmployeeMessages.toMessage(employee));
+                    } else if (lastPage) {
+                        finished = true;
+                        observer.onCompleted();
+                    } else {
+                        List<Employee> employees = nextPage.apply(lastId);
+                        lastPage = employees.size() < pageSize;
+                        page = employees.iterator();
+                    }
+                }
+            } catch (RuntimeException e) {
+                finished = true;
+                observer.onError(toStatus(e));
+            }
+        }
+
+        private void cancel() {
+            finished = true;
+        }
+    }
+}
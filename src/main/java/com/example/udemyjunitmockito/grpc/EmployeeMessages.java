@@ -0,0 +1,41 @@
+package com.example.udemyjunitmockito.grpc;
+
+import com.example.udemyjunitmockito.grpc.proto.EmployeeMessage;
+import com.example.udemyjunitmockito.model.Employee;
+
+/**
+ * Converts between the JPA entity and its protobuf message. Unset strings arrive as empty strings
+ * in proto3, so they are mapped back to null.
+ */
+final class EmployeeMessages {
+
+    private EmployeeMessages() {
+    }
+
+    static EmployeeMessage toMessage(Employee employee) {
+        EmployeeMessage.Builder message = EmployeeMessage.newBuilder().setId(employee.getId());
+        if (employee.getFirstName() != null) {
+            message.setFirstName(employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            message.setLastName(employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            message.setEmail(employee.getEmail());
+        }
+        return message.build();
+    }
+
+    static Employee toEmployee(EmployeeMessage message) {
+        return Employee.builder()
+                .id(message.getId())
+                .firstName(emptyToNull(message.getFirstName()))
+                .lastName(emptyToNull(message.getLastName()))
+                .email(emptyToNull(message.getEmail()))
+                .build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
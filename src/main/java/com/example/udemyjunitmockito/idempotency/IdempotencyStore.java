@@ -0,0 +1,152 @@
+package com.example.udemyjunitmockito.idempotency;
+
+import com.example.udemyjunitmockito.exception.IdempotencyKeyInProgressException;
+import com.example.udemyjunitmockito.exception.IdempotencyKeyReuseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring map of Idempotency-Key to the outcome of the first request that used it.
+ * Requests racing on the same key wait for the first one, up to a timeout after which they get
+ * {@link IdempotencyKeyInProgressException}; failed outcomes are not kept so the client can retry them.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final long ttlMs;
+    private final long waitTimeoutMs;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyStore(@Value("${employee.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${employee.idempotency.ttl-ms:86400000}") long ttlMs,
+                            @Value("${employee.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.ttlMs = ttlMs;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> action) {
+        Entry entry = claim(key, fingerprint);
+        if (entry.owned.compareAndSet(false, true)) {
+            return complete(key, entry, action);
+        }
+        try {
+            return (T) entry.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(key);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute}: the first request starts the action, later requests
+     * with the same key get its outcome without blocking a thread.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, String fingerprint, Supplier<CompletableFuture<T>> action) {
+        Entry entry = claim(key, fingerprint);
+        if (!entry.owned.compareAndSet(false, true)) {
+            return entry.result
+                    .thenApply(result -> (T) result)
+                    .orTimeout(waitTimeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(failure -> {
+                        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                        if (cause instanceof TimeoutException) {
+                            throw inProgress(key);
+                        }
+                        throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+                    });
+        }
+        CompletableFuture<T> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            fail(key, entry, e);
+            throw e;
+        }
+        return result.whenComplete((value, failure) -> {
+            if (failure == null) {
+                entry.result.complete(value);
+            } else {
+                fail(key, entry, failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static IdempotencyKeyInProgressException inProgress(String key) {
+        return new IdempotencyKeyInProgressException("Request with Idempotency-Key " + key + " is still in progress");
+    }
+
+    private Entry claim(String key, String fingerprint) {
+        Entry entry;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            entry = entries.get(key);
+            if (entry == null || entry.expiresAt < now) {
+                entry = new Entry(fingerprint, now + ttlMs);
+                entries.remove(key);
+                entries.put(key, entry);
+            }
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        return entry;
+    }
+
+    private <T> T complete(String key, Entry entry, Supplier<T> action) {
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            fail(key, entry, e);
+            throw e;
+        }
+    }
+
+    private void fail(String key, Entry entry, Throwable failure) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+        entry.result.completeExceptionally(failure);
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicBoolean owned = new AtomicBoolean();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.udemyjunitmockito.importer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Positions of the employee columns in a CSV file, taken from its header. Names are matched
+ * case-insensitively and with underscores ignored, so both firstName and first_name work.
+ */
+public final class CsvColumns {
+
+    private final int firstName;
+    private final int lastName;
+    private final int email;
+
+    private CsvColumns(int firstName, int lastName, int email) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    public static CsvColumns ofHeader(String header) {
+        return of(CsvLineParser.parse(header.startsWith("\uFEFF") ? header.substring(1) : header));
+    }
+
+    public static CsvColumns of(List<String> header) {
+        List<String> names = header.stream()
+                .map(name -> name.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        int firstName = names.indexOf("firstname");
+        int lastName = names.indexOf("lastname");
+        int email = names.indexOf("email");
+        if (firstName < 0 || lastName < 0 || email < 0) {
+            throw new IllegalArgumentException("CSV header must contain firstName, lastName and email columns");
+        }
+        return new CsvColumns(firstName, lastName, email);
+    }
+
+    public String firstName(List<String> fields) {
+        return field(fields, firstName);
+    }
+
+    public String lastName(List<String> fields) {
+        return field(fields, lastName);
+    }
+
+    public String email(List<String> fields) {
+        return field(fields, email);
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.udemyjunitmockito.importer;
+
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeImportReport;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Reads CSV rows as they arrive, validates chunks of them on a worker pool and stores every
+ * chunk in its own transaction. At most max-in-flight chunks are held in memory at a time.
+ */
+@Slf4j
+@Component
+public class EmployeeCsvImporter {
+
+    private static final int KEPT_REPORTS = 100;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final int maxErrors;
+    private final Map<String, EmployeeImportReport> reports = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EmployeeImportReport> eldest) {
+            return size() > KEPT_REPORTS;
+        }
+    });
+
+    public EmployeeCsvImporter(EmployeeRepository employeeRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${employee.import.workers:4}") int workers,
+                               @Value("${employee.import.chunk-size:1000}") int chunkSize,
+                               @Value("${employee.import.max-in-flight:8}") int maxInFlight,
+                               @Value("${employee.import.max-errors:1000}") int maxErrors) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.maxErrors = maxErrors;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public EmployeeImportReport start(String importId) {
+        EmployeeImportReport report = new EmployeeImportReport(importId == null ? UUID.randomUUID().toString() : importId, maxErrors);
+        reports.put(report.getId(), report);
+        return report;
+    }
+
+    public Optional<EmployeeImportReport> getReport(String importId) {
+        return Optional.ofNullable(reports.get(importId));
+    }
+
+    public List<EmployeeImportReport> getReports() {
+        synchronized (reports) {
+            return new ArrayList<>(reports.values());
+        }
+    }
+
+    public EmployeeImportReport importCsv(InputStream input, EmployeeImportReport report) {
+        Deque<Future<List<Row>>> inFlight = new ArrayDeque<>();
+        Set<String> seenEmails = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                report.complete();
+                return report;
+            }
+            CsvColumns columns = CsvColumns.ofHeader(header);
+
+            long rowNumber = 1;
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(rowNumber, line));
+                if (chunk.size() == chunkSize) {
+                    submit(chunk, columns, inFlight, report, seenEmails);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(chunk, columns, inFlight, report, seenEmails);
+            }
+            while (!inFlight.isEmpty()) {
+                persist(inFlight.poll().get(), report, seenEmails);
+            }
+            report.complete();
+        } catch (IOException | IllegalArgumentException | ExecutionException e) {
+            log.warn("Employee import {} failed", report.getId(), e);
+            inFlight.forEach(future -> future.cancel(true));
+            report.fail(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.forEach(future -> future.cancel(true));
+            report.fail("Import interrupted");
+        }
+        return report;
+    }
+
+    private void submit(List<Line> chunk, CsvColumns columns, Deque<Future<List<Row>>> inFlight,
+                        EmployeeImportReport report, Set<String> seenEmails) throws ExecutionException, InterruptedException {
+        report.rowsRead(chunk.size());
+        inFlight.add(workers.submit(() -> chunk.stream().map(line -> validate(line, columns)).collect(Collectors.toList())));
+        if (inFlight.size() >= maxInFlight) {
+            persist(inFlight.poll().get(), report, seenEmails);
+        }
+    }
+
+    private void persist(List<Row> rows, EmployeeImportReport report, Set<String> seenEmails) {
+        List<Row> valid = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.error != null) {
+                report.rowFailed(row.number, row.error);
+            } else if (!seenEmails.add(EmailKey.normalize(row.employee.getEmail()))) {
+                report.rowFailed(row.number, "Duplicate email in file:" + row.employee.getEmail());
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        List<Row> alreadyExist = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                alreadyExist.clear();
+                Set<String> emails = valid.stream()
+                        .map(row -> row.employee.getEmail())
+                        .collect(Collectors.toSet());
+                employeeRepository.releaseDeletedEmails(emails);
+                Set<String> existingEmails = employeeRepository.findByEmailIn(emails).stream()
+                        .map(employee -> EmailKey.normalize(employee.getEmail()))
+                        .collect(Collectors.toSet());
+                List<Employee> employees = new ArrayList<>(valid.size());
+                for (Row row : valid) {
+                    if (existingEmails.contains(EmailKey.normalize(row.employee.getEmail()))) {
+                        alreadyExist.add(row);
+                    } else {
+                        employees.add(row.employee);
+                    }
+                }
+                employeeRepository.saveAll(employees);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Employee import {} could not store rows {}-{}", report.getId(),
+                    valid.get(0).number, valid.get(valid.size() - 1).number, e);
+            valid.forEach(row -> report.rowFailed(row.number, "Could not store row: " + e.getMessage()));
+            return;
+        }
+        // reported only once the chunk committed, so a rolled back chunk reports each row once
+        alreadyExist.forEach(row -> report.rowFailed(row.number, "Employee already exist with given email:" + row.employee.getEmail()));
+        report.rowsImported(valid.size() - alreadyExist.size());
+    }
+
+    static Row validate(Line line, CsvColumns columns) {
+        List<String> fields = CsvLineParser.parse(line.text);
+        String firstName = columns.firstName(fields);
+        String lastName = columns.lastName(fields);
+        String email = columns.email(fields);
+        String error = EmployeeRowValidator.validate(firstName, lastName, email);
+        if (error != null) {
+            return new Row(line.number, null, error);
+        }
+        return new Row(line.number, EmployeeRowValidator.normalize(firstName, lastName, email), null);
+    }
+
+    static final class Line {
+        private final long number;
+        private final String text;
+
+        Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    static final class Row {
+        private final long number;
+        private final Employee employee;
+        private final String error;
+
+        private Row(long number, Employee employee, String error) {
+            this.number = number;
+            this.employee = employee;
+            this.error = error;
+        }
+    }
+}
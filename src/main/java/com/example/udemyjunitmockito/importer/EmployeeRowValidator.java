@@ -0,0 +1,43 @@
+package com.example.udemyjunitmockito.importer;
+
+import com.example.udemyjunitmockito.model.Employee;
+
+import java.util.regex.Pattern;
+
+public final class EmployeeRowValidator {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_LENGTH = 255;
+
+    private EmployeeRowValidator() {
+    }
+
+    public static String validate(String firstName, String lastName, String email) {
+        if (isBlank(firstName) || isBlank(lastName) || isBlank(email)) {
+            return "firstName, lastName and email are required";
+        }
+        if (firstName.trim().length() > MAX_LENGTH || lastName.trim().length() > MAX_LENGTH || email.trim().length() > MAX_LENGTH) {
+            return "Values must not be longer than " + MAX_LENGTH + " characters";
+        }
+        if (!EMAIL.matcher(email.trim()).matches()) {
+            return "Invalid email:" + email.trim();
+        }
+        return null;
+    }
+
+    /**
+     * Trims the values. Email case is kept as given, like on the REST path; uniqueness is decided on
+     * the normalized email.
+     */
+    public static Employee normalize(String firstName, String lastName, String email) {
+        return Employee.builder()
+                .firstName(firstName.trim())
+                .lastName(lastName.trim())
+                .email(email.trim())
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
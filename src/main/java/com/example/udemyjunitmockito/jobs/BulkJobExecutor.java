@@ -0,0 +1,280 @@
+package com.example.udemyjunitmockito.jobs;
+
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobStatus;
+import com.example.udemyjunitmockito.model.BulkJobType;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.repository.BulkJobRepository;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs bulk jobs on a shared fork/join pool. The id range of the table is split in halves until a
+ * piece is at most partition-size ids wide and every piece runs in its own transaction. A semaphore
+ * shared by all jobs caps how many pieces hold a database connection at the same time.
+ * Both job types are idempotent per partition, so an interrupted job is simply run again.
+ * <p>
+ * An instance owns a job through a lease that every progress write renews. Other instances only
+ * claim a job once that lease has expired, and a cancel is a flag in the table that the owner
+ * checks before every partition, so it is seen whichever instance received the request.
+ */
+@Slf4j
+@Component
+public class BulkJobExecutor {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final List<BulkJobStatus> ACTIVE = List.of(BulkJobStatus.QUEUED, BulkJobStatus.RUNNING);
+
+    private final EmployeeRepository employeeRepository;
+    private final BulkJobRepository jobRepository;
+    private final EmployeeChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final Semaphore connections;
+    private final long partitionSize;
+    private final long leaseTimeoutMs;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    public BulkJobExecutor(EmployeeRepository employeeRepository,
+                           BulkJobRepository jobRepository,
+                           EmployeeChangeLog changeLog,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${employee.jobs.parallelism:4}") int parallelism,
+                           @Value("${employee.jobs.max-connections:2}") int maxConnections,
+                           @Value("${employee.jobs.partition-size:10000}") long partitionSize,
+                           @Value("${employee.jobs.lease-timeout-ms:30000}") long leaseTimeoutMs) {
+        this.employeeRepository = employeeRepository;
+        this.jobRepository = jobRepository;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism);
+        this.connections = new Semaphore(maxConnections);
+        this.partitionSize = partitionSize;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runningJobs.values().forEach(job -> job.cancelled = true);
+        pool.shutdownNow();
+    }
+
+    /**
+     * Takes the lease on a queued or interrupted job. Returns false when another live instance owns it
+     * or it was cancelled; a cancelled job nobody owns is marked CANCELLED on the way.
+     */
+    public boolean claim(BulkJob job) {
+        Instant now = Instant.now();
+        Instant expiredBefore = now.minusMillis(leaseTimeoutMs);
+        if (job.isCancelRequested()) {
+            jobRepository.cancelAbandoned(job.getId(), now, expiredBefore, ACTIVE, BulkJobStatus.CANCELLED);
+            return false;
+        }
+        int claimed = job.getStatus() == BulkJobStatus.QUEUED
+                ? jobRepository.claimQueued(job.getId(), instanceId, now, expiredBefore, BulkJobStatus.QUEUED, BulkJobStatus.RUNNING)
+                : jobRepository.claimRunning(job.getId(), job.getStartedAt(), instanceId, now, expiredBefore, BulkJobStatus.RUNNING);
+        if (claimed == 0) {
+            return false;
+        }
+        job.setStatus(BulkJobStatus.RUNNING);
+        job.setStartedAt(now);
+        job.setOwnerId(instanceId);
+        job.setHeartbeatAt(now);
+        job.setCompletedPartitions(0);
+        job.setFailedPartitions(0);
+        job.setAffectedRows(0);
+        job.setLastError(null);
+        return true;
+    }
+
+    public void start(BulkJob job) {
+        RunningJob runningJob = new RunningJob(job);
+        if (runningJobs.putIfAbsent(job.getId(), runningJob) == null) {
+            pool.execute(() -> run(runningJob));
+        }
+    }
+
+    /**
+     * Returns false once the job has recorded its final status, so the caller reads that status
+     * instead of reporting a cancellation that will never happen.
+     */
+    public boolean cancel(String jobId) {
+        RunningJob runningJob = runningJobs.get(jobId);
+        if (runningJob == null) {
+            return false;
+        }
+        synchronized (runningJob) {
+            if (runningJob.finished) {
+                return false;
+            }
+            runningJob.cancelled = true;
+            return true;
+        }
+    }
+
+    /**
+     * Flags the job as cancelled in the table. The owning instance, here or elsewhere, stops before its
+     * next partition; a job without a live owner is marked CANCELLED right away.
+     */
+    public void requestCancel(String jobId) {
+        jobRepository.requestCancel(jobId, ACTIVE);
+        if (!cancel(jobId)) {
+            Instant now = Instant.now();
+            jobRepository.cancelAbandoned(jobId, now, now.minusMillis(leaseTimeoutMs), ACTIVE, BulkJobStatus.CANCELLED);
+        }
+    }
+
+    public boolean isRunning(String jobId) {
+        return runningJobs.containsKey(jobId);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.jobs.progress-interval-ms:1000}")
+    public void persistProgress() {
+        runningJobs.values().forEach(this::persist);
+    }
+
+    void run(RunningJob runningJob) {
+        BulkJob job = runningJob.job;
+        boolean crashed = false;
+        try {
+            Long minId = employeeRepository.findMinId();
+            Long maxId = employeeRepository.findMaxId();
+            if (minId != null && !runningJob.cancelled) {
+                job.setTotalPartitions((int) ((maxId - minId) / partitionSize + 1));
+                persist(runningJob);
+                new Partition(runningJob, minId, maxId).invoke();
+            }
+        } catch (RuntimeException e) {
+            log.error("Bulk job {} failed", job.getId(), e);
+            runningJob.lastError = e.getMessage();
+            crashed = true;
+        } finally {
+            try {
+                synchronized (runningJob) {
+                    runningJob.finish(crashed ? BulkJobStatus.FAILED
+                            : runningJob.cancelled ? BulkJobStatus.CANCELLED
+                            : runningJob.failedPartitions.get() > 0 ? BulkJobStatus.FAILED : BulkJobStatus.COMPLETED);
+                    persist(runningJob);
+                    jobRepository.finish(job.getId(), job.getOwnerId(), job.getStatus(), job.getFinishedAt(), BulkJobStatus.RUNNING);
+                }
+            } finally {
+                runningJobs.remove(job.getId());
+            }
+        }
+    }
+
+    private void persist(RunningJob runningJob) {
+        synchronized (runningJob) {
+            BulkJob job = runningJob.job;
+            job.setCompletedPartitions(runningJob.completedPartitions.get());
+            job.setFailedPartitions(runningJob.failedPartitions.get());
+            job.setAffectedRows(runningJob.affectedRows.get());
+            String lastError = runningJob.lastError;
+            job.setLastError(lastError == null || lastError.length() <= MAX_ERROR_LENGTH ? lastError : lastError.substring(0, MAX_ERROR_LENGTH));
+            job.setHeartbeatAt(Instant.now());
+            int updated = jobRepository.updateProgress(job.getId(), job.getOwnerId(), job.getTotalPartitions(),
+                    job.getCompletedPartitions(), job.getFailedPartitions(), job.getAffectedRows(), job.getLastError(),
+                    job.getHeartbeatAt());
+            if (updated == 0 && !runningJob.cancelled) {
+                log.warn("Bulk job {} lost its lease, stopping", job.getId());
+                runningJob.cancelled = true;
+            }
+        }
+    }
+
+    private int execute(BulkJob job, long fromId, long toId) {
+        if (job.getType() == BulkJobType.REWRITE_EMAIL_DOMAIN) {
+            changeLog.appendForEmailDomain(fromId, toId, job.getSourceDomain(), EmployeeChangeType.UPDATED);
+            return employeeRepository.rewriteEmailDomain(fromId, toId, job.getSourceDomain(), job.getTargetDomain());
+        }
+        changeLog.appendForEmailDomain(fromId, toId, job.getSourceDomain(), EmployeeChangeType.DELETED);
+        return employeeRepository.deleteByEmailDomain(fromId, toId, job.getSourceDomain());
+    }
+
+    static final class RunningJob {
+        private final BulkJob job;
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private final AtomicInteger failedPartitions = new AtomicInteger();
+        private final AtomicLong affectedRows = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+        private volatile String lastError;
+
+        RunningJob(BulkJob job) {
+            this.job = job;
+        }
+
+        void finish(BulkJobStatus status) {
+            finished = true;
+            job.setStatus(status);
+            job.setFinishedAt(Instant.now());
+        }
+    }
+
+    private final class Partition extends RecursiveAction {
+        private final RunningJob runningJob;
+        private final long fromId;
+        private final long toId;
+
+        Partition(RunningJob runningJob, long fromId, long toId) {
+            this.runningJob = runningJob;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected void compute() {
+            if (runningJob.cancelled) {
+                return;
+            }
+            long width = toId - fromId + 1;
+            if (width > partitionSize) {
+                long partitions = (width + partitionSize - 1) / partitionSize;
+                long middle = fromId + partitions / 2 * partitionSize;
+                invokeAll(new Partition(runningJob, fromId, middle - 1), new Partition(runningJob, middle, toId));
+                return;
+            }
+            try {
+                connections.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                runningJob.cancelled = true;
+                return;
+            }
+            try {
+                if (Boolean.TRUE.equals(jobRepository.isCancelRequested(runningJob.job.getId()))) {
+                    runningJob.cancelled = true;
+                    return;
+                }
+                Integer affected = transactionTemplate.execute(status -> execute(runningJob.job, fromId, toId));
+                runningJob.affectedRows.addAndGet(affected == null ? 0 : affected);
+                runningJob.completedPartitions.incrementAndGet();
+            } catch (RuntimeException e) {
+                log.warn("Bulk job {} failed for ids {}-{}", runningJob.job.getId(), fromId, toId, e);
+                runningJob.lastError = "ids " + fromId + "-" + toId + ": " + e.getMessage();
+                runningJob.failedPartitions.incrementAndGet();
+            } finally {
+                connections.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.udemyjunitmockito.loader;
+
+import com.example.udemyjunitmockito.importer.CsvColumns;
+import com.example.udemyjunitmockito.importer.CsvLineParser;
+import com.example.udemyjunitmockito.importer.EmployeeRowValidator;
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a CSV or NDJSON file of employees straight into the employees table.
+ * The file is memory-mapped and cut into chunks that end on line boundaries, every chunk is
+ * parsed by its own worker and written with JDBC batch inserts, one transaction per batch.
+ * CSV columns are mapped by the header line. Quoted CSV fields spanning several lines are not supported.
+ */
+@Slf4j
+public class EmployeeFileLoader {
+
+    static final String INSERT_SQL = "INSERT INTO employees (first_name, last_name, email, email_normalized, email_hash) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final Employee BLANK = new Employee();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int workers;
+    private final int batchSize;
+
+    public EmployeeFileLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, int workers, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    public LoadResult load(Path file) throws IOException, InterruptedException {
+        Format format = Format.of(file);
+        long start = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvColumns columns = format == Format.CSV ? CsvColumns.ofHeader(header(channel)) : null;
+            List<Future<?>> futures = new ArrayList<>();
+            for (long[] chunk : split(channel, format == Format.CSV)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                futures.add(pool.submit(() -> loadChunk(buffer, columns, loaded, rejected)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Loading " + file + " failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new LoadResult(loaded.get(), rejected.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Splits the file into [start, end) byte ranges of roughly equal size, moving every cut
+     * forward to the next line break. The CSV header line is left out.
+     */
+    List<long[]> split(FileChannel channel, boolean skipHeader) throws IOException {
+        long size = channel.size();
+        long start = skipHeader ? nextLine(channel, 0, size) : 0;
+        int chunks = (int) Math.max(workers * 4L, (size - start) / MAX_CHUNK_BYTES + 1);
+        long target = Math.max(1, (size - start) / chunks);
+        List<long[]> ranges = new ArrayList<>();
+        while (start < size) {
+            long end = start + target >= size ? size : nextLine(channel, start + target, size);
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    private static String header(FileChannel channel) throws IOException {
+        long end = nextLine(channel, 0, channel.size());
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end, 1 << 16));
+        channel.read(buffer, 0);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).strip();
+    }
+
+    private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long offset = position;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private void loadChunk(MappedByteBuffer buffer, CsvColumns columns, AtomicLong loaded, AtomicLong rejected) {
+        List<Employee> batch = new ArrayList<>(batchSize);
+        byte[] line = new byte[256];
+        int length = 0;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b != '\n') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+                if (buffer.hasRemaining()) {
+                    continue;
+                }
+            }
+            Employee employee = parse(new String(line, 0, length, StandardCharsets.UTF_8).strip(), columns);
+            length = 0;
+            if (employee == null) {
+                rejected.incrementAndGet();
+            } else if (employee != BLANK) {
+                batch.add(employee);
+                if (batch.size() == batchSize) {
+                    write(batch, loaded, rejected);
+                    batch.clear();
+                }
+            }
+        }
+        write(batch, loaded, rejected);
+    }
+
+    /**
+     * Parses one CSV line when columns are given, one NDJSON line otherwise.
+     */
+    private Employee parse(String line, CsvColumns columns) {
+        if (line.isEmpty()) {
+            return BLANK;
+        }
+        String firstName;
+        String lastName;
+        String email;
+        if (columns != null) {
+            List<String> fields = CsvLineParser.parse(line);
+            firstName = columns.firstName(fields);
+            lastName = columns.lastName(fields);
+            email = columns.email(fields);
+        } else {
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                firstName = node.path("firstName").asText(null);
+                lastName = node.path("lastName").asText(null);
+                email = node.path("email").asText(null);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        if (EmployeeRowValidator.validate(firstName, lastName, email) != null) {
+            return null;
+        }
+        return EmployeeRowValidator.normalize(firstName, lastName, email);
+    }
+
+    private void write(List<Employee> batch, AtomicLong loaded, AtomicLong rejected) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            loaded.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            // usually a duplicate email, retry row by row so one bad row does not cost the whole batch
+            for (Employee employee : batch) {
+                try {
+                    insert(List.of(employee));
+                    loaded.incrementAndGet();
+                } catch (DataAccessException rowFailure) {
+                    log.debug("Rejected {}: {}", employee.getEmail(), rowFailure.getMessage());
+                    rejected.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void insert(List<Employee> employees) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, employees, employees.size(), (ps, employee) -> {
+            ps.setString(1, employee.getFirstName());
+            ps.setString(2, employee.getLastName());
+            ps.setString(3, employee.getEmail());
+            ps.setString(4, EmailKey.normalize(employee.getEmail()));
+            ps.setLong(5, EmailKey.hash(employee.getEmail()));
+        });
+    }
+
+    enum Format {
+        CSV, NDJSON;
+
+        static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class LoadResult {
+        private final long loaded;
+        private final long rejected;
+        private final long elapsedNanos;
+
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : loaded * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
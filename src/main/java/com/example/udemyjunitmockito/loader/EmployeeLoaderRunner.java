@@ -0,0 +1,69 @@
+package com.example.udemyjunitmockito.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+/**
+ * Turns the application into a one-shot bulk loader:
+ * {@code java -jar app.jar --employee.loader.file=/data/employees.csv}
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employee.loader", name = "file")
+public class EmployeeLoaderRunner implements CommandLineRunner {
+
+    private final EmployeeFileLoader loader;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final boolean exit;
+
+    public EmployeeLoaderRunner(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                ConfigurableApplicationContext context,
+                                @Value("${employee.loader.file}") String file,
+                                @Value("${employee.loader.workers:0}") int workers,
+                                @Value("${employee.loader.batch-size:1000}") int batchSize,
+                                @Value("${employee.loader.exit:true}") boolean exit) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.loader = new EmployeeFileLoader(jdbcTemplate, transactionManager, objectMapper, threads, batchSize);
+        this.context = context;
+        this.file = Path.of(file);
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Loading {} (startup took {} ms)", file, startupMillis);
+        int exitCode = 0;
+        try {
+            EmployeeFileLoader.LoadResult result = loader.load(file);
+            long loadMillis = result.getElapsedNanos() / 1_000_000;
+            System.out.printf("Loaded %d employees, rejected %d rows in %d ms (%.0f rows/s); startup %d ms, total %d ms%n",
+                    result.getLoaded(), result.getRejected(), loadMillis, result.rowsPerSecond(),
+                    startupMillis, startupMillis + loadMillis);
+            if (result.getRejected() > 0) {
+                exitCode = 2;
+            }
+        } catch (Exception e) {
+            log.error("Loading {} failed", file, e);
+            exitCode = 1;
+        }
+        if (exit) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.udemyjunitmockito.migration;
+
+import com.example.udemyjunitmockito.model.EmailKey;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills email_normalized and email_hash for rows that existed before V4. The hash is computed in
+ * Java because it has to match {@link EmailKey} exactly. Rows are walked in id order, one chunk per batch.
+ */
+@Component
+public class V5__Backfill_email_hash extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, email FROM employees WHERE id > ? AND email_hash IS NULL ORDER BY id");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE employees SET email_normalized = ?, email_hash = ? WHERE id = ?")) {
+            select.setMaxRows(CHUNK_SIZE);
+            long lastId = Long.MIN_VALUE;
+            int rows;
+            do {
+                rows = 0;
+                select.setLong(1, lastId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong("id");
+                        String email = resultSet.getString("email");
+                        update.setString(1, EmailKey.normalize(email));
+                        update.setLong(2, EmailKey.hash(email));
+                        update.setLong(3, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows > 0) {
+                    update.executeBatch();
+                }
+            } while (rows == CHUNK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.udemyjunitmockito.model;
+
+public enum AggregationMode {
+    DATABASE,
+    SNAPSHOT
+}
@@ -0,0 +1,34 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+
+@Entity
+@Table(name = "employees_archive", indexes = @Index(name = "idx_employees_archive_email", columnList = "email"))
+public class ArchivedEmployee {
+    @Id
+    private long id;
+
+    @Column(nullable = false)
+    private String firstName;
+
+    @Column(nullable = false)
+    private String lastName;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
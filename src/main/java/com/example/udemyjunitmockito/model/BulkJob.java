@@ -0,0 +1,71 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "bulk_jobs")
+public class BulkJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private BulkJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BulkJobStatus status;
+
+    @Column(name = "source_domain", nullable = false)
+    private String sourceDomain;
+
+    @Column(name = "target_domain")
+    private String targetDomain;
+
+    @Column(name = "total_partitions")
+    private int totalPartitions;
+
+    @Column(name = "completed_partitions")
+    private int completedPartitions;
+
+    @Column(name = "failed_partitions")
+    private int failedPartitions;
+
+    @Column(name = "affected_rows")
+    private long affectedRows;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "owner_id", length = 36)
+    private String ownerId;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+}
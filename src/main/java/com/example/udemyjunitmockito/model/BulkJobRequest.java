@@ -0,0 +1,16 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkJobRequest {
+    private BulkJobType type;
+    private String sourceDomain;
+    private String targetDomain;
+}
@@ -0,0 +1,13 @@
+package com.example.udemyjunitmockito.model;
+
+public enum BulkJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.udemyjunitmockito.model;
+
+public enum BulkJobType {
+    REWRITE_EMAIL_DOMAIN,
+    PURGE_EMAIL_DOMAIN
+}
@@ -0,0 +1,39 @@
+package com.example.udemyjunitmockito.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Normalized form and 64-bit hash of an email, stored next to the email so lookups can use a
+ * small fixed-width index. Emails are unique by their normalized form, and equal normalized emails
+ * always hash alike, so a lookup by hash plus an equality check on the normalized email finds the
+ * row that uk_employees_email_normalized would collide with.
+ * The hash is persisted: changing it requires a migration that recomputes the column.
+ */
+public final class EmailKey {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EmailKey() {
+    }
+
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static long hash(String email) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : normalize(email).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        // murmur3 finalizer, spreads FNV's weak low bits over the whole word
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
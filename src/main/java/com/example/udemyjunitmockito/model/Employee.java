@@ -1,8 +1,12 @@
 package com.example.udemyjunitmockito.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Setter
 @Getter
@@ -11,7 +15,14 @@ import javax.persistence.*;
 @Builder
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = "uk_employees_email_normalized", columnNames = "email_normalized"),
+        indexes = {
+                @Index(name = "idx_employees_email_hash", columnList = "email_hash"),
+                @Index(name = "idx_employees_deleted_at", columnList = "deleted_at")
+        })
+@SQLDelete(sql = "UPDATE employees SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+@Where(clause = "deleted_at IS NULL")
 public class Employee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,4 +36,25 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    @JsonIgnore
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+
+    @JsonIgnore
+    @Column(name = "email_hash", nullable = false)
+    private long emailHash;
+
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateEmailKey() {
+        if (email != null) {
+            emailNormalized = EmailKey.normalize(email);
+            emailHash = EmailKey.hash(email);
+        }
+    }
 }
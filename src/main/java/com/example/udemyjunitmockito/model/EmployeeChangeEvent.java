@@ -0,0 +1,16 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeChangeEvent {
+    private long sequence;
+    private EmployeeChangeType type;
+    private long employeeId;
+    private Employee employee;
+    private Instant timestamp;
+}
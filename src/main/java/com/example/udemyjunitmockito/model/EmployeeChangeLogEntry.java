@@ -0,0 +1,16 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeChangeLogEntry {
+    private long sequence;
+    private long employeeId;
+    private EmployeeChangeType type;
+    private Instant changedAt;
+    private Instant readAt;
+}
@@ -0,0 +1,7 @@
+package com.example.udemyjunitmockito.model;
+
+public enum EmployeeChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,13 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeCount {
+    private String key;
+    private long count;
+}
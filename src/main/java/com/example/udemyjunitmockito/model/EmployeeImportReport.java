@@ -0,0 +1,103 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EmployeeImportReport {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+
+    private final String id;
+    private final int maxErrors;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    public EmployeeImportReport(String id, int maxErrors) {
+        this.id = id;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    public synchronized List<RowError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    public void rowsRead(long count) {
+        rowsRead.addAndGet(count);
+    }
+
+    public void rowsImported(long count) {
+        rowsImported.addAndGet(count);
+    }
+
+    public synchronized void rowFailed(long row, String message) {
+        rowsFailed.incrementAndGet();
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        failure = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeOperationResult {
+    private int index;
+    private EmployeeOperationType type;
+    private boolean success;
+    private String message;
+    private Employee employee;
+}
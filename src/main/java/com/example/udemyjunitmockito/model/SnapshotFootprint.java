@@ -0,0 +1,17 @@
+package com.example.udemyjunitmockito.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SnapshotFootprint {
+    private int employees;
+    private int distinctNames;
+    private long snapshotBytes;
+    private long entityBytes;
+
+    public double getCompressionRatio() {
+        return snapshotBytes == 0 ? 0 : (double) entityBytes / snapshotBytes;
+    }
+}
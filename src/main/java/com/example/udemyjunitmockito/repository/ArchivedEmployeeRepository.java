@@ -0,0 +1,12 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.model.ArchivedEmployee;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface ArchivedEmployeeRepository extends JpaRepository<ArchivedEmployee, Long> {
+    List<ArchivedEmployee> findByEmail(String email);
+}
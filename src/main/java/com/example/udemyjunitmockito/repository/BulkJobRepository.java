@@ -0,0 +1,90 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface BulkJobRepository extends JpaRepository<BulkJob, String> {
+    List<BulkJob> findByStatusIn(Collection<BulkJobStatus> statuses);
+
+    List<BulkJob> findTop50ByOrderByCreatedAtDesc();
+
+    /**
+     * Claims a queued job for this instance: only one of several instances moves it to RUNNING, and
+     * a job whose owner still sends heartbeats is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.status = :running, j.startedAt = :now, j.ownerId = :owner, j.heartbeatAt = :now, " +
+            "j.completedPartitions = 0, j.failedPartitions = 0, j.affectedRows = 0, j.lastError = NULL " +
+            "WHERE j.id = :id AND j.status = :queued AND j.cancelRequested = false " +
+            "AND (j.ownerId IS NULL OR j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore)")
+    int claimQueued(@Param("id") String id, @Param("owner") String owner, @Param("now") Instant now,
+                    @Param("expiredBefore") Instant expiredBefore,
+                    @Param("queued") BulkJobStatus queued, @Param("running") BulkJobStatus running);
+
+    /**
+     * Claims an interrupted running job for this instance once its lease has expired. The start time
+     * that was read acts as the claim token, so only one of several instances restarts the job.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.startedAt = :now, j.ownerId = :owner, j.heartbeatAt = :now, " +
+            "j.completedPartitions = 0, j.failedPartitions = 0, j.affectedRows = 0, j.lastError = NULL " +
+            "WHERE j.id = :id AND j.status = :running AND j.startedAt = :startedAt AND j.cancelRequested = false " +
+            "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore)")
+    int claimRunning(@Param("id") String id, @Param("startedAt") Instant startedAt, @Param("owner") String owner,
+                     @Param("now") Instant now, @Param("expiredBefore") Instant expiredBefore,
+                     @Param("running") BulkJobStatus running);
+
+    /**
+     * Writes progress and renews the lease without touching the status. Returns 0 once another
+     * instance has taken the job over.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.totalPartitions = :total, j.completedPartitions = :completed, " +
+            "j.failedPartitions = :failed, j.affectedRows = :affectedRows, j.lastError = :lastError, j.heartbeatAt = :now " +
+            "WHERE j.id = :id AND j.ownerId = :owner")
+    int updateProgress(@Param("id") String id, @Param("owner") String owner, @Param("total") int total,
+                       @Param("completed") int completed, @Param("failed") int failed,
+                       @Param("affectedRows") long affectedRows, @Param("lastError") String lastError,
+                       @Param("now") Instant now);
+
+    /**
+     * Records the final status, unless the job was finished elsewhere in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.status = :status, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.ownerId = :owner AND j.status = :running")
+    int finish(@Param("id") String id, @Param("owner") String owner, @Param("status") BulkJobStatus status,
+               @Param("now") Instant now, @Param("running") BulkJobStatus running);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.cancelRequested = true WHERE j.id = :id AND j.status IN :active")
+    int requestCancel(@Param("id") String id, @Param("active") Collection<BulkJobStatus> active);
+
+    /**
+     * Cancels a job nobody holds a live lease on; a running owner sees the flag and stops by itself.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.status = :cancelled, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status IN :active AND j.cancelRequested = true " +
+            "AND (j.ownerId IS NULL OR j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore)")
+    int cancelAbandoned(@Param("id") String id, @Param("now") Instant now, @Param("expiredBefore") Instant expiredBefore,
+                        @Param("active") Collection<BulkJobStatus> active, @Param("cancelled") BulkJobStatus cancelled);
+
+    @Query("SELECT j.cancelRequested FROM BulkJob j WHERE j.id = :id")
+    Boolean isCancelRequested(@Param("id") String id);
+}
@@ -1,14 +1,62 @@
 package com.example.udemyjunitmockito.repository;
 
+import com.example.udemyjunitmockito.model.EmailKey;
 import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    Optional<Employee> findByEmail(String email);
+@Transactional(readOnly = true)
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeUpsertRepository {
+
+    String EMAIL_DOMAIN_OR_EMAIL = "CASE WHEN LOCATE('@', e.email, LOCATE('@', e.email) + 1) > 0 THEN e.email " +
+            "ELSE LOWER(SUBSTRING(e.email, LOCATE('@', e.email) + 1)) END";
+
+    /**
+     * Looks rows up by email_hash alone and rechecks the normalized email in Java, the same key
+     * uk_employees_email_normalized enforces. With the email in the WHERE clause MySQL prefers the
+     * unique index, which is several times larger than the hash index. The unique index stays only
+     * to enforce uniqueness for concurrent creates and upserts, which a non-unique hash index cannot do.
+     */
+    default Optional<Employee> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String normalized = EmailKey.normalize(email);
+        return findByEmailHash(EmailKey.hash(email)).stream()
+                .filter(employee -> normalized.equals(employee.getEmailNormalized()))
+                .findFirst();
+    }
+
+    default List<Employee> findByEmailIn(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> hashes = emails.stream().map(EmailKey::hash).collect(Collectors.toSet());
+        Set<String> normalized = emails.stream().map(EmailKey::normalize).collect(Collectors.toSet());
+        return findByEmailHashIn(hashes).stream()
+                .filter(employee -> normalized.contains(employee.getEmailNormalized()))
+                .collect(Collectors.toList());
+    }
+
+    List<Employee> findByEmailHash(long emailHash);
+
+    List<Employee> findByEmailHashIn(Collection<Long> emailHashes);
 
     @Query("SELECT e FROM Employee e WHERE e.firstName = ?1 AND e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
@@ -16,11 +64,118 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("SELECT e FROM Employee e WHERE e.firstName =:firstName AND e.lastName =:lastName")
     Employee findByJPQLNamedParams(String firstName, String lastName);
 
-    @Query(value = "SELECT * FROM employees e WHERE e.first_name = ?1 AND e.last_name = ?2", nativeQuery = true)
+    @Query(value = "SELECT * FROM employees e WHERE e.first_name = ?1 AND e.last_name = ?2 AND e.deleted_at IS NULL", nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
 
-    @Query(value = "SELECT * FROM employees e WHERE e.first_name =:firstName AND e.last_name =:lastName", nativeQuery = true)
+    @Query(value = "SELECT * FROM employees e WHERE e.first_name =:firstName AND e.last_name =:lastName AND e.deleted_at IS NULL", nativeQuery = true)
     Employee findByNativeSQLNamedParams(String firstName, String lastName);
 
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * The domain is what follows the last '@', like {@link com.example.udemyjunitmockito.snapshot.EmployeeSnapshot}.
+     * JPQL can only find the first one, so the rare emails with several '@' are grouped by the
+     * whole email and re-keyed here.
+     */
+    default List<EmployeeCount> countByEmailDomain() {
+        Map<String, Long> counts = new HashMap<>();
+        for (EmployeeCount count : countByEmailAfterFirstAt()) {
+            String key = count.getKey();
+            String domain = key.indexOf('@') < 0 ? key : key.substring(key.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+            counts.merge(domain, count.getCount(), Long::sum);
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new EmployeeCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Query("SELECT new com.example.udemyjunitmockito.model.EmployeeCount(" + EMAIL_DOMAIN_OR_EMAIL + ", COUNT(e)) " +
+            "FROM Employee e GROUP BY " + EMAIL_DOMAIN_OR_EMAIL)
+    List<EmployeeCount> countByEmailAfterFirstAt();
+
+    @Query("SELECT new com.example.udemyjunitmockito.model.EmployeeCount(UPPER(SUBSTRING(e.lastName, 1, 1)), COUNT(e)) " +
+            "FROM Employee e GROUP BY UPPER(SUBSTRING(e.lastName, 1, 1))")
+    List<EmployeeCount> countByLastNameInitial();
+
+    @Query("SELECT new com.example.udemyjunitmockito.model.EmployeeCount(e.firstName, COUNT(e)) FROM Employee e GROUP BY e.firstName")
+    List<EmployeeCount> countByFirstName();
+
+    @Query("SELECT MIN(e.id) FROM Employee e")
+    Long findMinId();
+
+    @Query("SELECT MAX(e.id) FROM Employee e")
+    Long findMaxId();
+
+    @Query("SELECT e FROM Employee e WHERE e.id BETWEEN :fromId AND :toId AND LOWER(e.email) LIKE CONCAT('%@', :domain)")
+    List<Employee> findInIdRangeWithEmailDomain(@Param("fromId") long fromId, @Param("toId") long toId,
+                                                @Param("domain") String domain);
+
+    /**
+     * Rewrites entities rather than running a bulk UPDATE so the email hash columns are recomputed.
+     */
+    @Transactional
+    default int rewriteEmailDomain(long fromId, long toId, String sourceDomain, String targetDomain) {
+        List<Employee> employees = findInIdRangeWithEmailDomain(fromId, toId, sourceDomain);
+        for (Employee employee : employees) {
+            String email = employee.getEmail();
+            employee.setEmail(email.substring(0, email.lastIndexOf('@') + 1) + targetDomain);
+        }
+        return employees.size();
+    }
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.deletedAt = CURRENT_TIMESTAMP " +
+            "WHERE e.id BETWEEN :fromId AND :toId AND e.deletedAt IS NULL AND LOWER(e.email) LIKE CONCAT('%@', :domain)")
+    int deleteByEmailDomain(@Param("fromId") long fromId, @Param("toId") long toId, @Param("domain") String domain);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.deletedAt = CURRENT_TIMESTAMP WHERE e.id IN :ids AND e.deletedAt IS NULL")
+    int softDeleteAllById(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM employees WHERE deleted_at IS NOT NULL AND deleted_at < :cutoff ORDER BY id", nativeQuery = true)
+    List<Long> findDeletedIdsBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Query(value = "SELECT id FROM employees WHERE deleted_at IS NOT NULL AND email_hash IN (:hashes) " +
+            "AND email_normalized IN (:emails)", nativeQuery = true)
+    List<Long> findDeletedIdsByEmailIn(@Param("hashes") Collection<Long> emailHashes, @Param("emails") Collection<String> normalizedEmails);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO employees_archive (id, first_name, last_name, email, deleted_at, archived_at) " +
+            "SELECT id, first_name, last_name, email, deleted_at, CURRENT_TIMESTAMP FROM employees " +
+            "WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int copyDeletedToArchive(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM employees WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves soft-deleted rows to employees_archive. Both statements run in one transaction.
+     */
+    @Transactional
+    default int archiveDeleted(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        copyDeletedToArchive(ids);
+        return purgeDeleted(ids);
+    }
 
+    /**
+     * A soft-deleted row still holds its email in the unique index, so create and update paths
+     * archive such rows before they reuse an email.
+     */
+    @Transactional
+    default int releaseDeletedEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        Set<Long> hashes = emails.stream().map(EmailKey::hash).collect(Collectors.toSet());
+        Set<String> normalized = emails.stream().map(EmailKey::normalize).collect(Collectors.toSet());
+        return archiveDeleted(findDeletedIdsByEmailIn(hashes, normalized));
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.model.Employee;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface EmployeeUpsertRepository {
+
+    @Transactional
+    Employee upsert(Employee employee);
+
+    @Transactional
+    List<Employee> upsertAll(List<Employee> employees);
+}
@@ -0,0 +1,198 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Upserts in one statement per call. PostgreSQL and H2 return the stored rows from the upsert itself.
+ * MySQL cannot, so a single upsert reads its id back as a generated key, and a batch reads the rows
+ * back by email hash in a second statement.
+ */
+public class EmployeeUpsertRepositoryImpl implements EmployeeUpsertRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final RowMapper<Employee> EMPLOYEE_ROW_MAPPER = (resultSet, rowNum) -> Employee.builder()
+            .id(resultSet.getLong("id"))
+            .firstName(resultSet.getString("first_name"))
+            .lastName(resultSet.getString("last_name"))
+            .email(resultSet.getString("email"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private volatile UpsertDialect dialect;
+
+    @Autowired
+    public EmployeeUpsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null);
+    }
+
+    EmployeeUpsertRepositoryImpl(JdbcTemplate jdbcTemplate, UpsertDialect dialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.dialect = dialect;
+    }
+
+    @Override
+    public Employee upsert(Employee employee) {
+        return upsertAll(List.of(employee)).get(0);
+    }
+
+    @Override
+    public List<Employee> upsertAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return Collections.emptyList();
+        }
+        UpsertDialect dialect = dialect();
+        if (dialect != UpsertDialect.MYSQL) {
+            List<Employee> distinct = lastPerEmail(employees);
+            List<Employee> stored = new ArrayList<>(distinct.size());
+            for (int from = 0; from < distinct.size(); from += MAX_ROWS_PER_STATEMENT) {
+                List<Employee> chunk = distinct.subList(from, Math.min(distinct.size(), from + MAX_ROWS_PER_STATEMENT));
+                stored.addAll(jdbcTemplate.query(dialect.sql(chunk.size()), statement -> {
+                    for (int index = 0; index < chunk.size(); index++) {
+                        bind(statement, index * 5 + 1, chunk.get(index));
+                    }
+                }, EMPLOYEE_ROW_MAPPER));
+            }
+            return matchStored(employees, stored);
+        }
+        if (employees.size() == 1) {
+            return List.of(upsertReturningId(employees.get(0)));
+        }
+        jdbcTemplate.batchUpdate(dialect.sql(1), employees, employees.size(),
+                (statement, employee) -> bind(statement, 1, employee));
+        List<Employee> stored = namedParameterJdbcTemplate.query(
+                "SELECT id, first_name, last_name, email FROM employees WHERE email_hash IN (:hashes)",
+                Map.of("hashes", employees.stream().map(employee -> EmailKey.hash(employee.getEmail())).collect(Collectors.toSet())),
+                EMPLOYEE_ROW_MAPPER);
+        return matchStored(employees, stored);
+    }
+
+    private Employee upsertReturningId(Employee employee) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UpsertDialect.MYSQL.sql(1), Statement.RETURN_GENERATED_KEYS);
+            bind(statement, 1, employee);
+            return statement;
+        }, keyHolder);
+        return Employee.builder()
+                .id(keyHolder.getKey().longValue())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+
+    private static void bind(PreparedStatement statement, int firstIndex, Employee employee) throws SQLException {
+        statement.setString(firstIndex, employee.getFirstName());
+        statement.setString(firstIndex + 1, employee.getLastName());
+        statement.setString(firstIndex + 2, employee.getEmail());
+        statement.setString(firstIndex + 3, EmailKey.normalize(employee.getEmail()));
+        statement.setLong(firstIndex + 4, EmailKey.hash(employee.getEmail()));
+    }
+
+    /**
+     * A multi-row upsert may not touch the same row twice, so only the last write per normalized
+     * email is sent.
+     */
+    private static List<Employee> lastPerEmail(List<Employee> employees) {
+        Map<String, Employee> byEmail = new LinkedHashMap<>();
+        employees.forEach(employee -> byEmail.put(EmailKey.normalize(employee.getEmail()), employee));
+        return List.copyOf(byEmail.values());
+    }
+
+    /**
+     * Emails are unique by their normalized form, so that is the key stored rows are matched on.
+     */
+    private static List<Employee> matchStored(List<Employee> employees, List<Employee> stored) {
+        Map<String, Employee> byNormalizedEmail = new HashMap<>();
+        stored.forEach(employee -> byNormalizedEmail.put(EmailKey.normalize(employee.getEmail()), employee));
+        return employees.stream()
+                .map(employee -> byNormalizedEmail.get(EmailKey.normalize(employee.getEmail())))
+                .collect(Collectors.toList());
+    }
+
+    private UpsertDialect dialect() {
+        if (dialect == null) {
+            dialect = UpsertDialect.of(databaseProductName());
+        }
+        return dialect;
+    }
+
+    private String databaseProductName() {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not detect database for upsert", e);
+        }
+    }
+
+    static String upsertSqlFor(String databaseProductName) {
+        return UpsertDialect.of(databaseProductName).sql(1);
+    }
+
+    enum UpsertDialect {
+        MYSQL("INSERT INTO employees (first_name, last_name, email, email_normalized, email_hash) VALUES ",
+                "(?, ?, ?, ?, ?)",
+                " ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), first_name = VALUES(first_name), " +
+                        "last_name = VALUES(last_name), email = VALUES(email), deleted_at = NULL"),
+        POSTGRESQL("INSERT INTO employees (first_name, last_name, email, email_normalized, email_hash) VALUES ",
+                "(?, ?, ?, ?, ?)",
+                " ON CONFLICT (email_normalized) DO UPDATE SET first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name, " +
+                        "email = EXCLUDED.email, deleted_at = NULL RETURNING id, first_name, last_name, email"),
+        H2("SELECT id, first_name, last_name, email FROM FINAL TABLE (MERGE INTO employees " +
+                "(first_name, last_name, email, email_normalized, email_hash, deleted_at) KEY (email_normalized) VALUES ",
+                "(?, ?, ?, ?, ?, NULL)",
+                ")");
+
+        private final String prefix;
+        private final String row;
+        private final String suffix;
+
+        UpsertDialect(String prefix, String row, String suffix) {
+            this.prefix = prefix;
+            this.row = row;
+            this.suffix = suffix;
+        }
+
+        String sql(int rows) {
+            return prefix + String.join(", ", Collections.nCopies(rows, row)) + suffix;
+        }
+
+        static UpsertDialect of(String databaseProductName) {
+            switch (databaseProductName) {
+                case "MySQL":
+                case "MariaDB":
+                    return MYSQL;
+                case "PostgreSQL":
+                    return POSTGRESQL;
+                case "H2":
+                    return H2;
+                default:
+                    throw new UnsupportedOperationException("Upsert is not supported on " + databaseProductName);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.udemyjunitmockito.service;
+
+import com.example.udemyjunitmockito.model.Employee;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncEmployeeService {
+    CompletableFuture<Employee> saveEmployee(Employee employee);
+
+    CompletableFuture<List<Employee>> getAllEmployees();
+
+    CompletableFuture<Optional<Employee>> getEmployeeById(long id);
+
+    CompletableFuture<Optional<Employee>> updateEmployee(long id, Employee employee);
+
+    CompletableFuture<Void> deleteEmployee(long id);
+}
@@ -0,0 +1,19 @@
+package com.example.udemyjunitmockito.service;
+
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BulkJobService {
+    BulkJob submit(BulkJobRequest request);
+
+    List<BulkJob> getJobs();
+
+    Optional<BulkJob> getJob(String jobId);
+
+    Optional<BulkJob> cancel(String jobId);
+
+    void resumeInterruptedJobs();
+}
@@ -0,0 +1,12 @@
+package com.example.udemyjunitmockito.service;
+
+import com.example.udemyjunitmockito.model.AggregationMode;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+
+import java.util.List;
+
+public interface EmployeeAggregationService {
+    List<EmployeeCount> countByEmailDomain(AggregationMode mode);
+    List<EmployeeCount> countByLastNameInitial(AggregationMode mode);
+    List<EmployeeCount> countByFirstName(AggregationMode mode);
+}
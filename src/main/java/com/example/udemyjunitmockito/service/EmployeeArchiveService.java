@@ -0,0 +1,16 @@
+package com.example.udemyjunitmockito.service;
+
+import com.example.udemyjunitmockito.model.ArchivedEmployee;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface EmployeeArchiveService {
+    List<ArchivedEmployee> getArchivedEmployees(int page, int size);
+
+    Optional<ArchivedEmployee> getArchivedEmployeeById(long id);
+
+    List<ArchivedEmployee> getArchivedEmployeesByEmail(String email);
+
+    int archiveDeletedEmployees();
+}
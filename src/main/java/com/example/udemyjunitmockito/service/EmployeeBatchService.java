@@ -0,0 +1,10 @@
+package com.example.udemyjunitmockito.service;
+
+import com.example.udemyjunitmockito.model.EmployeeOperation;
+import com.example.udemyjunitmockito.model.EmployeeOperationResult;
+
+import java.util.List;
+
+public interface EmployeeBatchService {
+    List<EmployeeOperationResult> executeBatch(List<EmployeeOperation> operations);
+}
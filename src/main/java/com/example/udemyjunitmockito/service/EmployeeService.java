@@ -10,6 +10,7 @@ public interface EmployeeService {
     Employee saveEmployee(Employee employee);
     List<Employee> getAllEmployees();
     Optional<Employee> getEmployeeById(long id);
+    List<Employee> getEmployeesAfter(long afterId, int limit);
     Employee updateEmployee(Employee updatedEmployee);
     void deleteEmployee(long id);
 }
@@ -0,0 +1,10 @@
+package com.example.udemyjunitmockito.service;
+
+import com.example.udemyjunitmockito.model.Employee;
+
+import java.util.List;
+
+public interface EmployeeUpsertService {
+    Employee upsertEmployee(Employee employee);
+    List<Employee> upsertEmployees(List<Employee> employees);
+}
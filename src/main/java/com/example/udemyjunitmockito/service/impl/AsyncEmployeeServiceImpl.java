@@ -0,0 +1,81 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.AsyncEmployeeService;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link EmployeeService} calls on the bounded database executor so the calling thread is
+ * free while the query runs. Submitting to a full executor throws RejectedExecutionException.
+ */
+@Service
+public class AsyncEmployeeServiceImpl implements AsyncEmployeeService {
+
+    private final EmployeeService employeeService;
+    private final Executor executor;
+    private final Timer queueWait;
+
+    public AsyncEmployeeServiceImpl(EmployeeService employeeService,
+                                    @Qualifier("employeeDatabaseExecutor") Executor executor,
+                                    MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        this.executor = executor;
+        this.queueWait = Timer.builder("employee.async.queue.wait")
+                .description("Time a task waits for a database executor thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<Employee> saveEmployee(Employee employee) {
+        return supply(() -> employeeService.saveEmployee(employee));
+    }
+
+    @Override
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return supply(employeeService::getAllEmployees);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Employee>> getEmployeeById(long id) {
+        return supply(() -> employeeService.getEmployeeById(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Employee>> updateEmployee(long id, Employee employee) {
+        return supply(() -> employeeService.getEmployeeById(id)
+                .map(savedEmployee -> {
+                    savedEmployee.setFirstName(employee.getFirstName());
+                    savedEmployee.setLastName(employee.getLastName());
+                    savedEmployee.setEmail(employee.getEmail());
+                    return employeeService.updateEmployee(savedEmployee);
+                }));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteEmployee(long id) {
+        return supply(() -> {
+            employeeService.deleteEmployee(id);
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> task) {
+        long submitted = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            return task.get();
+        }, executor);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.jobs.BulkJobExecutor;
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobRequest;
+import com.example.udemyjunitmockito.model.BulkJobStatus;
+import com.example.udemyjunitmockito.model.BulkJobType;
+import com.example.udemyjunitmockito.repository.BulkJobRepository;
+import com.example.udemyjunitmockito.service.BulkJobService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Slf4j
+@AllArgsConstructor
+@Service
+public class BulkJobServiceImpl implements BulkJobService {
+
+    private static final Pattern DOMAIN = Pattern.compile("^[a-z0-9-]+(\\.[a-z0-9-]+)+$");
+
+    private BulkJobRepository jobRepository;
+    private BulkJobExecutor jobExecutor;
+
+    @Override
+    public BulkJob submit(BulkJobRequest request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Job type is required");
+        }
+        String sourceDomain = domain(request.getSourceDomain(), "sourceDomain");
+        String targetDomain = null;
+        if (request.getType() == BulkJobType.REWRITE_EMAIL_DOMAIN) {
+            targetDomain = domain(request.getTargetDomain(), "targetDomain");
+            if (sourceDomain.equals(targetDomain)) {
+                throw new IllegalArgumentException("sourceDomain and targetDomain must differ");
+            }
+        }
+        BulkJob job = jobRepository.save(BulkJob.builder()
+                .id(UUID.randomUUID().toString())
+                .type(request.getType())
+                .status(BulkJobStatus.QUEUED)
+                .sourceDomain(sourceDomain)
+                .targetDomain(targetDomain)
+                .createdAt(Instant.now())
+                .build());
+        if (jobExecutor.claim(job)) {
+            jobExecutor.start(job);
+        }
+        return job;
+    }
+
+    @Override
+    public List<BulkJob> getJobs() {
+        return jobRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    @Override
+    public Optional<BulkJob> getJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    @Override
+    public Optional<BulkJob> cancel(String jobId) {
+        jobExecutor.requestCancel(jobId);
+        return jobRepository.findById(jobId);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (BulkJob job : jobRepository.findByStatusIn(List.of(BulkJobStatus.QUEUED, BulkJobStatus.RUNNING))) {
+            if (!jobExecutor.claim(job)) {
+                log.info("Bulk job {} is owned by another instance or was cancelled", job.getId());
+                continue;
+            }
+            log.info("Resuming bulk job {} ({})", job.getId(), job.getType());
+            jobExecutor.start(job);
+        }
+    }
+
+    private static String domain(String value, String field) {
+        String domain = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        if (!DOMAIN.matcher(domain).matches()) {
+            throw new IllegalArgumentException("Invalid " + field + ":" + value);
+        }
+        return domain;
+    }
+}
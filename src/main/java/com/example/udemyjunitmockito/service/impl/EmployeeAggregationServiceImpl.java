@@ -0,0 +1,62 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.model.AggregationMode;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import com.example.udemyjunitmockito.service.EmployeeAggregationService;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshot;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshotStore;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor
+@Service
+public class EmployeeAggregationServiceImpl implements EmployeeAggregationService {
+
+    private static final Comparator<EmployeeCount> BY_COUNT_DESC = Comparator.comparingLong(EmployeeCount::getCount).reversed()
+            .thenComparing(EmployeeCount::getKey);
+
+    private EmployeeRepository employeeRepository;
+    private ObjectProvider<EmployeeSnapshotStore> snapshotStore;
+
+    @Override
+    public List<EmployeeCount> countByEmailDomain(AggregationMode mode) {
+        return aggregate(mode, employeeRepository::countByEmailDomain, EmployeeSnapshot::countByEmailDomain);
+    }
+
+    @Override
+    public List<EmployeeCount> countByLastNameInitial(AggregationMode mode) {
+        return aggregate(mode, employeeRepository::countByLastNameInitial, EmployeeSnapshot::countByLastNameInitial);
+    }
+
+    @Override
+    public List<EmployeeCount> countByFirstName(AggregationMode mode) {
+        return aggregate(mode, employeeRepository::countByFirstName, EmployeeSnapshot::countByFirstName);
+    }
+
+    private List<EmployeeCount> aggregate(AggregationMode mode,
+                                          Supplier<List<EmployeeCount>> database,
+                                          Function<EmployeeSnapshot, Map<String, Long>> snapshot) {
+        if (mode == AggregationMode.SNAPSHOT) {
+            EmployeeSnapshotStore store = snapshotStore.getIfAvailable();
+            if (store == null) {
+                throw new IllegalStateException("Employee snapshot is disabled, set employee.snapshot.enabled=true");
+            }
+            return snapshot.apply(store.current()).entrySet().stream()
+                    .map(entry -> new EmployeeCount(entry.getKey(), entry.getValue()))
+                    .sorted(BY_COUNT_DESC)
+                    .collect(Collectors.toList());
+        }
+        return database.get().stream()
+                .sorted(BY_COUNT_DESC)
+                .collect(Collectors.toList());
+    }
+}
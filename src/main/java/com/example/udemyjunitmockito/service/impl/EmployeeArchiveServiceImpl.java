@@ -0,0 +1,44 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.archive.EmployeeArchiver;
+import com.example.udemyjunitmockito.model.ArchivedEmployee;
+import com.example.udemyjunitmockito.repository.ArchivedEmployeeRepository;
+import com.example.udemyjunitmockito.service.EmployeeArchiveService;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@AllArgsConstructor
+@Service
+public class EmployeeArchiveServiceImpl implements EmployeeArchiveService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private ArchivedEmployeeRepository archivedEmployeeRepository;
+    private EmployeeArchiver employeeArchiver;
+
+    @Override
+    public List<ArchivedEmployee> getArchivedEmployees(int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+        return archivedEmployeeRepository.findAll(pageRequest).getContent();
+    }
+
+    @Override
+    public Optional<ArchivedEmployee> getArchivedEmployeeById(long id) {
+        return archivedEmployeeRepository.findById(id);
+    }
+
+    @Override
+    public List<ArchivedEmployee> getArchivedEmployeesByEmail(String email) {
+        return archivedEmployeeRepository.findByEmail(email);
+    }
+
+    @Override
+    public int archiveDeletedEmployees() {
+        return employeeArchiver.archive();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.coherence.EmployeeCache;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.exception.BatchOperationException;
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.model.EmployeeOperation;
+import com.example.udemyjunitmockito.model.EmployeeOperationResult;
+import com.example.udemyjunitmockito.model.EmployeeOperationType;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import com.example.udemyjunitmockito.service.EmployeeBatchService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor
+@Service
+public class EmployeeBatchServiceImpl implements EmployeeBatchService {
+
+    private EmployeeRepository employeeRepository;
+    private EmployeeChangeRingBuffer changeBuffer;
+    private EmployeeChangeLog changeLog;
+    private EmployeeCache employeeCache;
+
+    @Override
+    @Transactional
+    public List<EmployeeOperationResult> executeBatch(List<EmployeeOperation> operations) {
+        List<EmployeeOperationResult> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(new EmployeeOperationResult(index, operations.get(index).getType(), true, null, null));
+        }
+
+        Map<Long, Employee> existingEmployees = employeeRepository.findAllById(operations.stream()
+                        .map(EmployeeOperation::getId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        Set<String> emails = operations.stream()
+                .map(EmployeeOperation::getEmployee)
+                .filter(Objects::nonNull)
+                .map(Employee::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        employeeRepository.releaseDeletedEmails(emails);
+        Map<String, Long> emailOwners = new HashMap<>();
+        employeeRepository.findByEmailIn(emails)
+                .forEach(employee -> emailOwners.put(EmailKey.normalize(employee.getEmail()), employee.getId()));
+
+        validate(operations, results, existingEmployees, emailOwners);
+        if (results.stream().anyMatch(result -> !result.isSuccess())) {
+            throw new BatchOperationException("Batch rejected, no operation was applied", results);
+        }
+
+        apply(operations, results, existingEmployees);
+        publishAfterCommit(operations, results);
+        return results;
+    }
+
+    private void validate(List<EmployeeOperation> operations, List<EmployeeOperationResult> results,
+                          Map<Long, Employee> existingEmployees, Map<String, Long> emailOwners) {
+        Set<Long> touchedIds = new HashSet<>();
+        for (int index = 0; index < operations.size(); index++) {
+            EmployeeOperation operation = operations.get(index);
+            String failure = null;
+            if (operation.getType() == null) {
+                failure = "Operation type is required";
+            } else if (operation.getType() != EmployeeOperationType.CREATE && operation.getId() == null) {
+                failure = "Employee id is required for " + operation.getType();
+            } else if (operation.getType() != EmployeeOperationType.DELETE && operation.getEmployee() == null) {
+                failure = "Employee is required for " + operation.getType();
+            } else if (operation.getType() != EmployeeOperationType.CREATE && !existingEmployees.containsKey(operation.getId())) {
+                failure = "Employee not found with given id:" + operation.getId();
+            } else if (operation.getType() != EmployeeOperationType.CREATE && !touchedIds.add(operation.getId())) {
+                failure = "Employee with given id is changed more than once in the batch:" + operation.getId();
+            } else if (operation.getType() != EmployeeOperationType.DELETE) {
+                long ownerId = operation.getType() == EmployeeOperationType.CREATE ? 0L : operation.getId();
+                String email = operation.getEmployee().getEmail();
+                Long currentOwner = emailOwners.putIfAbsent(email == null ? null : EmailKey.normalize(email), ownerId);
+                if (currentOwner != null && (ownerId == 0L || currentOwner != ownerId)) {
+                    failure = "Employee already exist with given email:" + email;
+                }
+            }
+            if (failure != null) {
+                results.get(index).setSuccess(false);
+                results.get(index).setMessage(failure);
+            }
+        }
+    }
+
+    private void apply(List<EmployeeOperation> operations, List<EmployeeOperationResult> results,
+                       Map<Long, Employee> existingEmployees) {
+        List<Integer> createIndexes = new ArrayList<>();
+        List<Employee> creates = new ArrayList<>();
+        List<Long> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (int index = 0; index < operations.size(); index++) {
+            EmployeeOperation operation = operations.get(index);
+            switch (operation.getType()) {
+                case CREATE:
+                    createIndexes.add(index);
+                    creates.add(operation.getEmployee());
+                    break;
+                case UPDATE:
+                    Employee savedEmployee = existingEmployees.get(operation.getId());
+                    savedEmployee.setFirstName(operation.getEmployee().getFirstName());
+                    savedEmployee.setLastName(operation.getEmployee().getLastName());
+                    savedEmployee.setEmail(operation.getEmployee().getEmail());
+                    results.get(index).setEmployee(savedEmployee);
+                    updates.add(savedEmployee.getId());
+                    break;
+                case DELETE:
+                    deletes.add(operation.getId());
+                    break;
+            }
+        }
+
+        Iterator<Employee> createdEmployees = employeeRepository.saveAll(creates).iterator();
+        createIndexes.forEach(index -> results.get(index).setEmployee(createdEmployees.next()));
+        if (!deletes.isEmpty()) {
+            employeeRepository.softDeleteAllById(deletes);
+        }
+        changeLog.appendAll(updates, EmployeeChangeType.UPDATED);
+        changeLog.appendAll(deletes, EmployeeChangeType.DELETED);
+        AfterCommit.run(() -> {
+            updates.forEach(employeeCache::evict);
+            deletes.forEach(employeeCache::evict);
+        });
+    }
+
+    private void publishAfterCommit(List<EmployeeOperation> operations, List<EmployeeOperationResult> results) {
+        Runnable publish = () -> {
+            for (int index = 0; index < operations.size(); index++) {
+                EmployeeOperation operation = operations.get(index);
+                Employee employee = results.get(index).getEmployee();
+                switch (operation.getType()) {
+                    case CREATE:
+                        changeBuffer.publish(EmployeeChangeType.CREATED, employee.getId(), employee);
+                        break;
+                    case UPDATE:
+                        changeBuffer.publish(EmployeeChangeType.UPDATED, employee.getId(), employee);
+                        break;
+                    case DELETE:
+                        changeBuffer.publish(EmployeeChangeType.DELETED, operation.getId(), null);
+                        break;
+                }
+            }
+        };
+        AfterCommit.run(publish);
+    }
+}
@@ -1,48 +1,107 @@
 package com.example.udemyjunitmockito.service.impl;
 
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.coherence.EmployeeCache;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
 import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.groupcommit.EmployeeGroupCommitter;
 import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
 import com.example.udemyjunitmockito.repository.EmployeeRepository;
 import com.example.udemyjunitmockito.service.EmployeeService;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 @AllArgsConstructor
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
     private EmployeeRepository employeeRepository;
+    private EmployeeChangeRingBuffer changeBuffer;
+    private EmployeeGroupCommitter groupCommitter;
+    private EmployeeChangeLog changeLog;
+    private EmployeeCache employeeCache;
+    private TransactionTemplate transactionTemplate;
 
+    /**
+     * Runs the duplicate check and the insert in one read-write transaction so the check is never
+     * routed to a replica. The group-commit path stays outside of it, because a caller waiting for
+     * its batch must not hold a connection the committer needs.
+     */
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+        if (groupCommitter.isEnabled()) {
+            return saveEmployeeInGroup(employee);
         }
-        return employeeRepository.save(employee);
+        Employee createdEmployee = transactionTemplate.execute(status -> {
+            Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
+            if(savedEmployee.isPresent()){
+                throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+            }
+            employeeRepository.releaseDeletedEmails(List.of(employee.getEmail()));
+            return employeeRepository.save(employee);
+        });
+        changeBuffer.publish(EmployeeChangeType.CREATED, createdEmployee.getId(), createdEmployee);
+        return createdEmployee;
+    }
+
+    private Employee saveEmployeeInGroup(Employee employee) {
+        Employee createdEmployee;
+        try {
+            createdEmployee = groupCommitter.submit(employee).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        changeBuffer.publish(EmployeeChangeType.CREATED, createdEmployee.getId(), createdEmployee);
+        return createdEmployee;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        return employeeCache.get(id, employeeRepository::findById);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
     }
 
     @Override
+    @Transactional
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        employeeRepository.releaseDeletedEmails(List.of(updatedEmployee.getEmail()));
+        Employee savedEmployee = employeeRepository.save(updatedEmployee);
+        changeLog.append(savedEmployee.getId(), EmployeeChangeType.UPDATED);
+        AfterCommit.run(() -> {
+            employeeCache.evict(savedEmployee.getId());
+            changeBuffer.publish(EmployeeChangeType.UPDATED, savedEmployee.getId(), savedEmployee);
+        });
+        return savedEmployee;
     }
 
     @Override
+    @Transactional
     public void deleteEmployee(long id) {
         employeeRepository.deleteById(id);
+        changeLog.append(id, EmployeeChangeType.DELETED);
+        AfterCommit.run(() -> {
+            employeeCache.evict(id);
+            changeBuffer.publish(EmployeeChangeType.DELETED, id, null);
+        });
     }
 }
@@ -0,0 +1,62 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.coherence.EmployeeCache;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import com.example.udemyjunitmockito.service.EmployeeUpsertService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor
+@Service
+public class EmployeeUpsertServiceImpl implements EmployeeUpsertService {
+
+    private EmployeeRepository employeeRepository;
+    private EmployeeChangeRingBuffer changeBuffer;
+    private EmployeeChangeLog changeLog;
+    private EmployeeCache employeeCache;
+
+    @Override
+    @Transactional
+    public Employee upsertEmployee(Employee employee) {
+        return upsertEmployees(List.of(employee)).get(0);
+    }
+
+    /**
+     * The live rows are looked up first, so an upsert that inserts a row is published as CREATED and
+     * one that overwrites a row as UPDATED.
+     */
+    @Override
+    @Transactional
+    public List<Employee> upsertEmployees(List<Employee> employees) {
+        Set<String> existingEmails = employeeRepository.findByEmailIn(employees.stream()
+                        .map(Employee::getEmail)
+                        .collect(Collectors.toSet())).stream()
+                .map(employee -> EmailKey.normalize(employee.getEmail()))
+                .collect(Collectors.toSet());
+        List<Employee> storedEmployees = employeeRepository.upsertAll(employees);
+        Map<Long, EmployeeChangeType> changes = new LinkedHashMap<>();
+        storedEmployees.forEach(storedEmployee -> changes.putIfAbsent(storedEmployee.getId(),
+                existingEmails.contains(EmailKey.normalize(storedEmployee.getEmail()))
+                        ? EmployeeChangeType.UPDATED : EmployeeChangeType.CREATED));
+        changes.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((type, ids) -> changeLog.appendAll(ids, type));
+        AfterCommit.run(() -> storedEmployees.forEach(storedEmployee -> {
+            employeeCache.evict(storedEmployee.getId());
+            changeBuffer.publish(changes.get(storedEmployee.getId()), storedEmployee.getId(), storedEmployee);
+        }));
+        return storedEmployees;
+    }
+}
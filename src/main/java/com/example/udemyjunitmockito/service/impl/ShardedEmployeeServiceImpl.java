@@ -0,0 +1,53 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import com.example.udemyjunitmockito.sharding.ShardedEmployeeStore;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+
+@AllArgsConstructor
+public class ShardedEmployeeServiceImpl implements EmployeeService {
+
+    private ShardedEmployeeStore employeeStore;
+    private EmployeeChangeRingBuffer changeBuffer;
+
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        Employee createdEmployee = employeeStore.save(employee);
+        changeBuffer.publish(EmployeeChangeType.CREATED, createdEmployee.getId(), createdEmployee);
+        return createdEmployee;
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return employeeStore.findAll();
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(long id) {
+        return employeeStore.findById(id);
+    }
+
+    @Override
+    public List<Employee> getEmployeesAfter(long afterId, int limit) {
+        return employeeStore.findAfter(afterId, limit);
+    }
+
+    @Override
+    public Employee updateEmployee(Employee updatedEmployee) {
+        Employee savedEmployee = employeeStore.update(updatedEmployee);
+        changeBuffer.publish(EmployeeChangeType.UPDATED, savedEmployee.getId(), savedEmployee);
+        return savedEmployee;
+    }
+
+    @Override
+    public void deleteEmployee(long id) {
+        employeeStore.deleteById(id);
+        changeBuffer.publish(EmployeeChangeType.DELETED, id, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.udemyjunitmockito.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * The connection pools of all shards, in shard order. Registered as a bean so the pools are
+ * closed with the application context.
+ */
+public class ShardDataSources implements AutoCloseable {
+
+    private final List<HikariDataSource> dataSources;
+
+    public ShardDataSources(List<HikariDataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public List<DataSource> getAll() {
+        return List.copyOf(dataSources);
+    }
+
+    /**
+     * Migrates every shard with the Flyway scripts in db/shard/{vendor}.
+     */
+    public void migrate() {
+        dataSources.forEach(ShardDataSources::migrate);
+    }
+
+    public static void migrate(DataSource dataSource) {
+        String url;
+        try {
+            url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not detect shard database", e);
+        }
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/shard/" + DatabaseDriver.fromJdbcUrl(url).getId())
+                .load()
+                .migrate();
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.udemyjunitmockito.sharding;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.model.Employee;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads employees over several databases by a hash of the id. Ids and email uniqueness come
+ * from the global employee_emails table, so point operations by id touch one shard and the
+ * global table, while lists query all shards in parallel and merge by id.
+ * Writes spanning both are not atomic; a failed shard write undoes the global one.
+ * The store does not own the data sources and never closes them. The global table is migrated with
+ * the primary database, the shard tables by {@link ShardDataSources#migrate()}.
+ */
+public class ShardedEmployeeStore {
+
+    private static final RowMapper<Employee> EMPLOYEE_ROW_MAPPER = (resultSet, rowNum) -> Employee.builder()
+            .id(resultSet.getLong("id"))
+            .firstName(resultSet.getString("first_name"))
+            .lastName(resultSet.getString("last_name"))
+            .email(resultSet.getString("email"))
+            .build();
+
+    private final JdbcTemplate global;
+    private final List<JdbcTemplate> shards;
+    private final Executor executor;
+
+    public ShardedEmployeeStore(DataSource global, List<DataSource> shards, Executor executor) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.global = new JdbcTemplate(global);
+        this.shards = shards.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+        this.executor = executor;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) Math.floorMod(hash, (long) shards.size());
+    }
+
+    public Employee save(Employee employee) {
+        long id = reserveEmail(employee.getEmail());
+        try {
+            shard(id).update("INSERT INTO employees (id, first_name, last_name, email) VALUES (?, ?, ?, ?)",
+                    id, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        } catch (RuntimeException e) {
+            global.update("DELETE FROM employee_emails WHERE id = ?", id);
+            throw e;
+        }
+        employee.setId(id);
+        return employee;
+    }
+
+    /**
+     * Updates the global email first, so a duplicate email is rejected before the shard changes,
+     * and restores the previous email if the shard update fails.
+     *
+     * @throws EmptyResultDataAccessException if no employee has the id
+     */
+    public Employee update(Employee employee) {
+        long id = employee.getId();
+        String previousEmail = global.queryForList("SELECT email FROM employee_emails WHERE id = ?", String.class, id).stream()
+                .findFirst()
+                .orElseThrow(() -> new EmptyResultDataAccessException("No employee with id " + id, 1));
+        try {
+            global.update("UPDATE employee_emails SET email = ? WHERE id = ?", employee.getEmail(), id);
+        } catch (DuplicateKeyException e) {
+            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail(), e);
+        }
+        int updated;
+        try {
+            updated = shard(id).update("UPDATE employees SET first_name = ?, last_name = ?, email = ? WHERE id = ?",
+                    employee.getFirstName(), employee.getLastName(), employee.getEmail(), id);
+        } catch (RuntimeException e) {
+            global.update("UPDATE employee_emails SET email = ? WHERE id = ?", previousEmail, id);
+            throw e;
+        }
+        if (updated == 0) {
+            global.update("UPDATE employee_emails SET email = ? WHERE id = ?", previousEmail, id);
+            throw new EmptyResultDataAccessException("No employee with id " + id, 1);
+        }
+        return employee;
+    }
+
+    public void deleteById(long id) {
+        shard(id).update("DELETE FROM employees WHERE id = ?", id);
+        global.update("DELETE FROM employee_emails WHERE id = ?", id);
+    }
+
+    public Optional<Employee> findById(long id) {
+        return shard(id).query("SELECT * FROM employees WHERE id = ?", EMPLOYEE_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    public List<Employee> findAll() {
+        return scatter(shard -> shard.query("SELECT * FROM employees", EMPLOYEE_ROW_MAPPER));
+    }
+
+    public List<Employee> findAfter(long afterId, int limit) {
+        return scatter(shard -> shard.query("SELECT * FROM employees WHERE id > ? ORDER BY id LIMIT ?",
+                EMPLOYEE_ROW_MAPPER, afterId, limit)).stream()
+                .sorted(Comparator.comparingLong(Employee::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private long reserveEmail(String email) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            global.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO employee_emails (email) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                statement.setString(1, email);
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            throw new ResourceNotFoundException("Employee already exist with given email:" + email, e);
+        }
+        return keyHolder.getKey().longValue();
+    }
+
+    private JdbcTemplate shard(long id) {
+        return shards.get(shardOf(id));
+    }
+
+    private List<Employee> scatter(Function<JdbcTemplate, List<Employee>> query) {
+        List<CompletableFuture<List<Employee>>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+                .collect(Collectors.toList());
+        try {
+            List<Employee> employees = new ArrayList<>();
+            for (CompletableFuture<List<Employee>> future : futures) {
+                employees.addAll(future.join());
+            }
+            employees.sort(Comparator.comparingLong(Employee::getId));
+            return employees;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+}
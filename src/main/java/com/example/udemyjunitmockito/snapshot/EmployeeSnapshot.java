@@ -0,0 +1,309 @@
+package com.example.udemyjunitmockito.snapshot;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.SnapshotFootprint;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, column-oriented copy of the employees table.
+ * Ids are kept sorted so the slot of an id is found by binary search, names are
+ * dictionary encoded and emails are stored back to back as UTF-8 bytes.
+ */
+public final class EmployeeSnapshot {
+
+    private static final int ARRAY_HEADER = 16;
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+
+    private static final EmployeeSnapshot EMPTY = new Builder().build();
+
+    private final long[] ids;
+    private final int[] firstNames;
+    private final int[] lastNames;
+    private final int[] emailOffsets;
+    private final byte[] emails;
+    private final String[] namePool;
+    private final int size;
+    private final long entityBytes;
+
+    private EmployeeSnapshot(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.firstNames = Arrays.copyOf(builder.firstNames, size);
+        this.lastNames = Arrays.copyOf(builder.lastNames, size);
+        this.emailOffsets = Arrays.copyOf(builder.emailOffsets, size + 1);
+        this.emails = Arrays.copyOf(builder.emails, builder.emailOffsets[size]);
+        this.namePool = builder.namePool.toArray(new String[0]);
+        this.entityBytes = builder.entityBytes;
+    }
+
+    public static EmployeeSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static EmployeeSnapshot of(List<Employee> employees) {
+        return new Builder().addAll(employees).build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long maxId() {
+        return size == 0 ? 0 : ids[size - 1];
+    }
+
+    public Optional<Employee> findById(long id) {
+        int slot = Arrays.binarySearch(ids, 0, size, id);
+        return slot < 0 ? Optional.empty() : Optional.of(employeeAt(slot));
+    }
+
+    public List<Employee> list(int offset, int limit) {
+        if (offset >= size || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int end = (int) Math.min(size, (long) offset + limit);
+        List<Employee> employees = new ArrayList<>(end - offset);
+        for (int slot = offset; slot < end; slot++) {
+            employees.add(employeeAt(slot));
+        }
+        return employees;
+    }
+
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    public String firstNameAt(int slot) {
+        return namePool[firstNames[slot]];
+    }
+
+    public String lastNameAt(int slot) {
+        return namePool[lastNames[slot]];
+    }
+
+    public String emailAt(int slot) {
+        return new String(emails, emailOffsets[slot], emailOffsets[slot + 1] - emailOffsets[slot], StandardCharsets.UTF_8);
+    }
+
+    public Employee employeeAt(int slot) {
+        return Employee.builder()
+                .id(ids[slot])
+                .firstName(firstNameAt(slot))
+                .lastName(lastNameAt(slot))
+                .email(emailAt(slot))
+                .build();
+    }
+
+    public Map<String, Long> countByEmailDomain() {
+        return IntStream.range(0, size).parallel()
+                .mapToObj(this::emailDomainAt)
+                .collect(Collectors.groupingByConcurrent(Function.identity(), Collectors.counting()));
+    }
+
+    public Map<String, Long> countByFirstName() {
+        long[] counts = countByNameCode(firstNames);
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(namePool[code], counts[code]);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Long> countByLastNameInitial() {
+        long[] counts = countByNameCode(lastNames);
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                String initial = namePool[code].isEmpty() ? "" : namePool[code].substring(0, 1).toUpperCase();
+                result.merge(initial, counts[code], Long::sum);
+            }
+        }
+        return result;
+    }
+
+    private long[] countByNameCode(int[] codes) {
+        return IntStream.range(0, size).parallel()
+                .collect(() -> new long[namePool.length],
+                        (counts, slot) -> counts[codes[slot]]++,
+                        (left, right) -> {
+                            for (int code = 0; code < left.length; code++) {
+                                left[code] += right[code];
+                            }
+                        });
+    }
+
+    private String emailDomainAt(int slot) {
+        int start = emailOffsets[slot];
+        int end = emailOffsets[slot + 1];
+        int at = end - 1;
+        while (at >= start && emails[at] != '@') {
+            at--;
+        }
+        return new String(emails, at + 1, end - at - 1, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+    }
+
+    public EmployeeSnapshot append(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return this;
+        }
+        return new Builder(this).addAll(employees).build();
+    }
+
+    /**
+     * Returns a copy in which the given ids hold the rows in {@code current}; a changed id without a
+     * current row was deleted and is dropped.
+     */
+    public EmployeeSnapshot replace(Collection<Long> changedIds, List<Employee> current) {
+        if (changedIds.isEmpty()) {
+            return this;
+        }
+        Set<Long> changed = new HashSet<>(changedIds);
+        List<Employee> replacements = new ArrayList<>(current);
+        replacements.sort(Comparator.comparingLong(Employee::getId));
+        Builder builder = new Builder();
+        int next = 0;
+        for (int slot = 0; slot < size; slot++) {
+            while (next < replacements.size() && replacements.get(next).getId() < ids[slot]) {
+                builder.add(replacements.get(next++));
+            }
+            if (!changed.contains(ids[slot])) {
+                builder.add(employeeAt(slot));
+            }
+        }
+        while (next < replacements.size()) {
+            builder.add(replacements.get(next++));
+        }
+        return builder.build();
+    }
+
+    public SnapshotFootprint footprint() {
+        long snapshotBytes = primitiveArrayBytes(ids.length, Long.BYTES)
+                + primitiveArrayBytes(firstNames.length, Integer.BYTES)
+                + primitiveArrayBytes(lastNames.length, Integer.BYTES)
+                + primitiveArrayBytes(emailOffsets.length, Integer.BYTES)
+                + primitiveArrayBytes(emails.length, Byte.BYTES)
+                + primitiveArrayBytes(namePool.length, REFERENCE);
+        for (String name : namePool) {
+            snapshotBytes += stringBytes(name);
+        }
+        return new SnapshotFootprint(size, namePool.length, snapshotBytes, entityBytes);
+    }
+
+    private static long primitiveArrayBytes(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    private static long stringBytes(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+        return align(OBJECT_HEADER + REFERENCE + Integer.BYTES + 2)
+                + primitiveArrayBytes(value.length() * (latin1 ? 1 : 2), Byte.BYTES);
+    }
+
+    private static long employeeBytes(Employee employee) {
+        return align(OBJECT_HEADER + Long.BYTES + 3 * REFERENCE)
+                + stringBytes(employee.getFirstName())
+                + stringBytes(employee.getLastName())
+                + stringBytes(employee.getEmail())
+                + REFERENCE;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    static final class Builder {
+        private long[] ids = new long[16];
+        private int[] firstNames = new int[16];
+        private int[] lastNames = new int[16];
+        private int[] emailOffsets = new int[17];
+        private byte[] emails = new byte[256];
+        private final List<String> namePool = new ArrayList<>();
+        private final Map<String, Integer> nameCodes = new HashMap<>();
+        private int size;
+        private long entityBytes;
+
+        Builder() {
+        }
+
+        Builder(EmployeeSnapshot snapshot) {
+            this.size = snapshot.size;
+            this.ids = Arrays.copyOf(snapshot.ids, Math.max(16, size * 2));
+            this.firstNames = Arrays.copyOf(snapshot.firstNames, ids.length);
+            this.lastNames = Arrays.copyOf(snapshot.lastNames, ids.length);
+            this.emailOffsets = Arrays.copyOf(snapshot.emailOffsets, ids.length + 1);
+            this.emails = Arrays.copyOf(snapshot.emails, Math.max(256, snapshot.emails.length * 2));
+            this.entityBytes = snapshot.entityBytes;
+            for (String name : snapshot.namePool) {
+                nameCodes.put(name, namePool.size());
+                namePool.add(name);
+            }
+        }
+
+        Builder addAll(List<Employee> employees) {
+            employees.forEach(this::add);
+            return this;
+        }
+
+        Builder add(Employee employee) {
+            if (size > 0 && employee.getId() <= ids[size - 1]) {
+                throw new IllegalArgumentException("Employees must be added in ascending id order, got id:" + employee.getId());
+            }
+            ensureCapacity(size + 1);
+            byte[] email = employee.getEmail().getBytes(StandardCharsets.UTF_8);
+            int emailStart = emailOffsets[size];
+            if (emailStart + email.length > emails.length) {
+                emails = Arrays.copyOf(emails, Math.max(emails.length * 2, emailStart + email.length));
+            }
+            System.arraycopy(email, 0, emails, emailStart, email.length);
+
+            ids[size] = employee.getId();
+            firstNames[size] = code(employee.getFirstName());
+            lastNames[size] = code(employee.getLastName());
+            emailOffsets[size + 1] = emailStart + email.length;
+            entityBytes += employeeBytes(employee);
+            size++;
+            return this;
+        }
+
+        EmployeeSnapshot build() {
+            return new EmployeeSnapshot(this);
+        }
+
+        private int code(String name) {
+            return nameCodes.computeIfAbsent(name, key -> {
+                namePool.add(key);
+                return namePool.size() - 1;
+            });
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int newLength = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newLength);
+            firstNames = Arrays.copyOf(firstNames, newLength);
+            lastNames = Arrays.copyOf(lastNames, newLength);
+            emailOffsets = Arrays.copyOf(emailOffsets, newLength + 1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.udemyjunitmockito.snapshot;
+
+import com.example.udemyjunitmockito.coherence.ChangeLogWatermark;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeLogEntry;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps an {@link EmployeeSnapshot} of the employees table. A refresh applies the employee change
+ * log past the last sequence it has seen, re-reading updated rows and dropping deleted ones, then
+ * appends rows above the highest id. The periodic rebuild only compacts; the snapshot lags the table
+ * by at most one refresh interval plus the gap timeout for changes that commit out of order.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employee.snapshot", name = "enabled", havingValue = "true")
+public class EmployeeSnapshotStore {
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeChangeLog changeLog;
+    private final int pageSize;
+    private final ChangeLogWatermark watermark;
+    private volatile EmployeeSnapshot snapshot = EmployeeSnapshot.empty();
+
+    public EmployeeSnapshotStore(EmployeeRepository employeeRepository,
+                                 EmployeeChangeLog changeLog,
+                                 @Value("${employee.snapshot.page-size:10000}") int pageSize,
+                                 @Value("${employee.snapshot.gap-timeout-ms:5000}") long gapTimeoutMs) {
+        this.employeeRepository = employeeRepository;
+        this.changeLog = changeLog;
+        this.pageSize = pageSize;
+        this.watermark = new ChangeLogWatermark(gapTimeoutMs);
+    }
+
+    public EmployeeSnapshot current() {
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.snapshot.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!watermark.isInitialized()) {
+            rebuild();
+            return;
+        }
+        snapshot = loadAfter(applyChanges(snapshot));
+    }
+
+    @Scheduled(fixedDelayString = "${employee.snapshot.rebuild-interval-ms:300000}",
+            initialDelayString = "${employee.snapshot.rebuild-interval-ms:300000}")
+    public synchronized void rebuild() {
+        // read the log position first: changes committed while loading are applied again, which is harmless
+        watermark.reset(changeLog.lastSequence());
+        snapshot = loadAfter(EmployeeSnapshot.empty());
+    }
+
+    /**
+     * Re-reads every id at or below the snapshot's highest id that the change log touched; the rows
+     * above it are picked up by {@link #loadAfter}.
+     */
+    private EmployeeSnapshot applyChanges(EmployeeSnapshot base) {
+        Set<Long> changedIds = new LinkedHashSet<>();
+        long afterSequence = watermark.get();
+        List<EmployeeChangeLogEntry> entries;
+        do {
+            entries = changeLog.readAfter(afterSequence, pageSize);
+            for (EmployeeChangeLogEntry entry : entries) {
+                if (watermark.markSeen(entry.getSequence()) && entry.getEmployeeId() <= base.maxId()) {
+                    changedIds.add(entry.getEmployeeId());
+                }
+                afterSequence = entry.getSequence();
+            }
+        } while (entries.size() == pageSize);
+        watermark.advance();
+        if (changedIds.isEmpty()) {
+            return base;
+        }
+        List<Long> ids = new ArrayList<>(changedIds);
+        List<Employee> current = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += pageSize) {
+            current.addAll(employeeRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + pageSize))));
+        }
+        log.debug("Employee snapshot applied {} changed rows, {} still present", ids.size(), current.size());
+        return base.replace(ids, current);
+    }
+
+    private EmployeeSnapshot loadAfter(EmployeeSnapshot base) {
+        EmployeeSnapshot.Builder builder = null;
+        long lastId = base.maxId();
+        Pageable page = PageRequest.of(0, pageSize);
+        List<Employee> rows;
+        do {
+            rows = employeeRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            if (!rows.isEmpty()) {
+                builder = builder == null ? new EmployeeSnapshot.Builder(base) : builder;
+                builder.addAll(rows);
+                lastId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == pageSize);
+
+        if (builder == null) {
+            return base;
+        }
+        EmployeeSnapshot loaded = builder.build();
+        log.debug("Employee snapshot loaded {} new rows, {} in total", loaded.size() - base.size(), loaded.size());
+        return loaded;
+    }
+}
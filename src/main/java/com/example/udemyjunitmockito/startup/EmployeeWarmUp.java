@@ -0,0 +1,138 @@
+package com.example.udemyjunitmockito.startup;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Runs the hot request paths a configured number of times before the application reports ready,
+ * so the first real requests hit JIT-compiled code. Runners finish before Spring Boot switches
+ * readiness to ACCEPTING_TRAFFIC, and {@link WarmUpHealthIndicator} stays out of service until then.
+ * With tiered compilation HotSpot hands a method to C2 after roughly 5,000 to 15,000 invocations
+ * (Tier4InvocationThreshold and Tier4CompileThreshold), so the default of 20,000 iterations gets the
+ * hot paths past C1 into fully optimized code rather than stopping at the profiling tiers.
+ * That count only applies to JSON mapping. Database access runs db-iterations times, enough to fill
+ * the connection pool and statement caches without holding startup on thousands of round trips;
+ * it is read-only and looks up ids and emails that cannot exist. A one-shot bulk load
+ * ({@code employee.loader.file}) serves no requests, so it skips warm-up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employee.warm-up", name = "enabled", havingValue = "true")
+public class EmployeeWarmUp implements ApplicationRunner {
+
+    private static final String MISSING_EMAIL = "warm-up@invalid";
+    private static final long MISSING_ID = -1L;
+
+    private final ObjectMapper objectMapper;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationContext applicationContext;
+    private final WarmUpHealthIndicator healthIndicator;
+    private final int iterations;
+    private final int dbIterations;
+    private final int httpIterations;
+
+    public EmployeeWarmUp(ObjectMapper objectMapper,
+                          EmployeeRepository employeeRepository,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationContext applicationContext,
+                          WarmUpHealthIndicator healthIndicator,
+                          @Value("${employee.warm-up.iterations:20000}") int iterations,
+                          @Value("${employee.warm-up.db-iterations:500}") int dbIterations,
+                          @Value("${employee.warm-up.http-iterations:200}") int httpIterations) {
+        this.objectMapper = objectMapper;
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.applicationContext = applicationContext;
+        this.healthIndicator = healthIndicator;
+        this.iterations = iterations;
+        this.dbIterations = dbIterations;
+        this.httpIterations = httpIterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws JsonProcessingException {
+        if (applicationContext.getEnvironment().containsProperty("employee.loader.file")) {
+            log.info("Skipping warm-up for the bulk loader");
+            healthIndicator.complete(0, 0);
+            return;
+        }
+        long start = System.nanoTime();
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+        List<Employee> employees = List.of(employee, employee, employee);
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readValue(objectMapper.writeValueAsString(employee), Employee.class);
+            objectMapper.readValue(objectMapper.writeValueAsString(employees), new TypeReference<List<Employee>>() {
+            });
+        }
+        for (int i = 0; i < dbIterations; i++) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                employeeRepository.findById(MISSING_ID);
+                employeeRepository.findByEmail(MISSING_EMAIL);
+                employeeRepository.findByIdGreaterThanOrderByIdAsc(Long.MAX_VALUE, PageRequest.of(0, 1));
+            });
+        }
+        dispatchRequests();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        healthIndicator.complete(iterations, durationMs);
+        log.info("Warm-up finished: {} iterations in {} ms", iterations, durationMs);
+    }
+
+    private void dispatchRequests() {
+        if (!(applicationContext instanceof WebServerApplicationContext)) {
+            return;
+        }
+        int port = ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+        if (port <= 0) {
+            return;
+        }
+        String contextPath = applicationContext.getEnvironment().getProperty("server.servlet.context-path", "");
+        String url = "http://localhost:" + port + contextPath + "/api/employees/" + MISSING_ID;
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setErrorHandler(new IgnoringErrorHandler());
+        try {
+            for (int i = 0; i < httpIterations; i++) {
+                restTemplate.getForEntity(url, String.class);
+            }
+        } catch (RestClientException e) {
+            log.warn("Skipping HTTP warm-up: {}", e.getMessage());
+        }
+    }
+
+    private static final class IgnoringErrorHandler implements ResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.udemyjunitmockito.startup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness group: reports OUT_OF_SERVICE until {@link EmployeeWarmUp} has finished.
+ */
+@Component("warmUp")
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private volatile boolean completed;
+    private volatile int iterations;
+    private volatile long durationMs;
+
+    public WarmUpHealthIndicator(@Value("${employee.warm-up.enabled:false}") boolean enabled) {
+        this.completed = !enabled;
+    }
+
+    void complete(int iterations, long durationMs) {
+        this.iterations = iterations;
+        this.durationMs = durationMs;
+        this.completed = true;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public Health health() {
+        if (!completed) {
+            return Health.outOfService().withDetail("warmUp", "running").build();
+        }
+        return Health.up()
+                .withDetail("iterations", iterations)
+                .withDetail("durationMs", durationMs)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS bulk_jobs (
+    id                   VARCHAR(36)   NOT NULL,
+    type                 VARCHAR(32)   NOT NULL,
+    status               VARCHAR(16)   NOT NULL,
+    source_domain        VARCHAR(255)  NOT NULL,
+    target_domain        VARCHAR(255),
+    total_partitions     INT           NOT NULL DEFAULT 0,
+    completed_partitions INT           NOT NULL DEFAULT 0,
+    failed_partitions    INT           NOT NULL DEFAULT 0,
+    affected_rows        BIGINT        NOT NULL DEFAULT 0,
+    last_error           VARCHAR(1000),
+    created_at           TIMESTAMP     NOT NULL,
+    started_at           TIMESTAMP,
+    finished_at          TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bulk_jobs_status ON bulk_jobs (status);
+CREATE INDEX IF NOT EXISTS idx_bulk_jobs_created_at ON bulk_jobs (created_at);
@@ -0,0 +1,2 @@
+ALTER TABLE employees ADD COLUMN email_normalized VARCHAR(255);
+ALTER TABLE employees ADD COLUMN email_hash BIGINT;
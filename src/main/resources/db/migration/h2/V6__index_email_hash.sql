@@ -0,0 +1,3 @@
+ALTER TABLE employees ALTER COLUMN email_normalized SET NOT NULL;
+ALTER TABLE employees ALTER COLUMN email_hash SET NOT NULL;
+CREATE INDEX idx_employees_email_hash ON employees (email_hash);
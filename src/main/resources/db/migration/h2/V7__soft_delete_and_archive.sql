@@ -0,0 +1,13 @@
+ALTER TABLE employees ADD COLUMN deleted_at TIMESTAMP;
+CREATE INDEX idx_employees_deleted_at ON employees (deleted_at);
+
+CREATE TABLE IF NOT EXISTS employees_archive (
+    id          BIGINT       PRIMARY KEY,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    deleted_at  TIMESTAMP    NOT NULL,
+    archived_at TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_employees_archive_email ON employees_archive (email);
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS employee_changes (
+    seq         BIGINT      AUTO_INCREMENT PRIMARY KEY,
+    employee_id BIGINT      NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at  TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_employee_changes_changed_at ON employee_changes (changed_at);
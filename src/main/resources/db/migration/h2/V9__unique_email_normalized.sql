@@ -0,0 +1,2 @@
+ALTER TABLE employees DROP CONSTRAINT uk_employees_email;
+ALTER TABLE employees ADD CONSTRAINT uk_employees_email_normalized UNIQUE (email_normalized);
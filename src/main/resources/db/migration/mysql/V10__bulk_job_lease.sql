@@ -0,0 +1,4 @@
+ALTER TABLE bulk_jobs
+    ADD COLUMN owner_id VARCHAR(36) NULL,
+    ADD COLUMN heartbeat_at DATETIME(6) NULL,
+    ADD COLUMN cancel_requested BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS employees (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+) ENGINE = InnoDB;
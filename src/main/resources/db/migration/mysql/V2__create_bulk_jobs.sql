@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS bulk_jobs (
+    id                   VARCHAR(36)   NOT NULL,
+    type                 VARCHAR(32)   NOT NULL,
+    status               VARCHAR(16)   NOT NULL,
+    source_domain        VARCHAR(255)  NOT NULL,
+    target_domain        VARCHAR(255),
+    total_partitions     INT           NOT NULL DEFAULT 0,
+    completed_partitions INT           NOT NULL DEFAULT 0,
+    failed_partitions    INT           NOT NULL DEFAULT 0,
+    affected_rows        BIGINT        NOT NULL DEFAULT 0,
+    last_error           VARCHAR(1000),
+    created_at           DATETIME(6)   NOT NULL,
+    started_at           DATETIME(6),
+    finished_at          DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_bulk_jobs_status (status),
+    INDEX idx_bulk_jobs_created_at (created_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS employee_emails (
+    id    BIGINT       NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employee_emails_email UNIQUE (email)
+) ENGINE = InnoDB;
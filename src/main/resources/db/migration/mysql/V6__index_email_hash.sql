@@ -0,0 +1,4 @@
+ALTER TABLE employees
+    MODIFY email_normalized VARCHAR(255) NOT NULL,
+    MODIFY email_hash BIGINT NOT NULL,
+    ADD INDEX idx_employees_email_hash (email_hash);
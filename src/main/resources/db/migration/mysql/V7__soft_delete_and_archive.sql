@@ -0,0 +1,14 @@
+ALTER TABLE employees
+    ADD COLUMN deleted_at DATETIME(6) NULL,
+    ADD INDEX idx_employees_deleted_at (deleted_at);
+
+CREATE TABLE IF NOT EXISTS employees_archive (
+    id          BIGINT       NOT NULL,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    deleted_at  DATETIME(6)  NOT NULL,
+    archived_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_employees_archive_email (email)
+) ENGINE = InnoDB;
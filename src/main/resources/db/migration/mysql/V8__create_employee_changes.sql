@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS employee_changes (
+    seq         BIGINT      NOT NULL AUTO_INCREMENT,
+    employee_id BIGINT      NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (seq),
+    INDEX idx_employee_changes_changed_at (changed_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,3 @@
+ALTER TABLE employees
+    DROP INDEX uk_employees_email,
+    ADD CONSTRAINT uk_employees_email_normalized UNIQUE (email_normalized);
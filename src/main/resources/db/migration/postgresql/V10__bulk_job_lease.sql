@@ -0,0 +1,3 @@
+ALTER TABLE bulk_jobs ADD COLUMN owner_id VARCHAR(36);
+ALTER TABLE bulk_jobs ADD COLUMN heartbeat_at TIMESTAMP;
+ALTER TABLE bulk_jobs ADD COLUMN cancel_requested BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS employees (
+    id         BIGSERIAL    PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
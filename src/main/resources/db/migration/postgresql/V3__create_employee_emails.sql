@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS employee_emails (
+    id    BIGSERIAL    PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_employee_emails_email UNIQUE (email)
+);
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS employees (
+    id         BIGINT       NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS employees (
+    id         BIGINT       PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL
+);
@@ -0,0 +1,60 @@
+package com.example.udemyjunitmockito.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AdmissionControlFilter(true, 1, 4, 1, 4, 1, 250, 0.9, 3);
+    }
+
+    @Test
+    public void givenReadLimitReached_whenDoFilterRead_thenRejectWithRetryAfter() throws Exception {
+        // given
+        filter.getReadLimiter().tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), response, filterChain);
+        // then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(filterChain.getRequest()).isNull();
+    }
+
+    @Test
+    public void givenReadLimitReached_whenDoFilterWrite_thenUseWriteLimiter() throws Exception {
+        // given
+        filter.getReadLimiter().tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), response, filterChain);
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filterChain.getRequest()).isNotNull();
+        assertThat(filter.getWriteLimiter().getInFlight()).isZero();
+        assertThat(filter.getReadLimiter().getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenWriteLimitReached_whenDoFilterRead_thenPassAndReleaseReadPermit() throws Exception {
+        // given
+        filter.getWriteLimiter().tryAcquire();
+        MockFilterChain filterChain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), new MockHttpServletResponse(), filterChain);
+        // then
+        assertThat(filterChain.getRequest()).isNotNull();
+        assertThat(filter.getReadLimiter().getInFlight()).isZero();
+    }
+}
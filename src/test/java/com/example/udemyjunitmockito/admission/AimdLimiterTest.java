@@ -0,0 +1,93 @@
+package com.example.udemyjunitmockito.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    private static final long LATENCY_TARGET = 100;
+
+    private AimdLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AimdLimiter(2, 1, 4, LATENCY_TARGET, 0.5);
+    }
+
+    @Test
+    public void givenLimitReached_whenTryAcquire_thenReject() {
+        // given
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        // when
+        boolean acquired = limiter.tryAcquire();
+        // then
+        assertThat(acquired).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenFastRequestsAtLimit_whenRelease_thenIncreaseLimitUpToMax() {
+        // when
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(LATENCY_TARGET / 2);
+            limiter.release(LATENCY_TARGET / 2);
+        }
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void givenSlowRequest_whenRelease_thenDecreaseLimitDownToMin() {
+        // when
+        limiter.tryAcquire();
+        limiter.release(LATENCY_TARGET * 2);
+        limiter.tryAcquire();
+        limiter.release(LATENCY_TARGET * 2);
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenFastRequestsAtLimit_whenRelease_thenIncreaseLimitByOnePerLimitCompletions() {
+        // given
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        // when
+        limiter.release(LATENCY_TARGET / 2);
+        int afterOne = limiter.getLimit();
+        limiter.release(LATENCY_TARGET / 2);
+        // then
+        assertThat(afterOne).isEqualTo(2);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void givenConcurrentSlowRequests_whenRelease_thenDecreaseLimitOncePerLatencyWindow() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter windowed = new AimdLimiter(4, 1, 8, LATENCY_TARGET, 0.5, clock::get);
+        for (int i = 0; i < 4; i++) {
+            windowed.tryAcquire();
+        }
+        // when
+        clock.set(LATENCY_TARGET * 2);
+        for (int i = 0; i < 4; i++) {
+            windowed.release(LATENCY_TARGET * 2);
+        }
+        int afterBurst = windowed.getLimit();
+        windowed.tryAcquire();
+        clock.addAndGet(LATENCY_TARGET * 2);
+        windowed.release(LATENCY_TARGET * 2);
+        // then
+        assertThat(afterBurst).isEqualTo(2);
+        assertThat(windowed.getLimit()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.udemyjunitmockito.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPermitFilterTest {
+
+    @Test
+    public void givenFreePermit_whenDoFilter_thenPassRequestAndReleasePermit() throws Exception {
+        // given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, 10, 1);
+        MockFilterChain filterChain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), new MockHttpServletResponse(), filterChain);
+        // then
+        assertThat(filterChain.getRequest()).isNotNull();
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenNoFreePermit_whenDoFilter_thenRejectWithServiceUnavailable() throws Exception {
+        // given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(0, 10, 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), response, filterChain);
+        // then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(filterChain.getRequest()).isNull();
+    }
+
+    @Test
+    public void givenChangeFeedRequest_whenDoFilter_thenSkipPermits() throws Exception {
+        // given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(0, 10, 1);
+        MockFilterChain filterChain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/changes"), new MockHttpServletResponse(), filterChain);
+        // then
+        assertThat(filterChain.getRequest()).isNotNull();
+    }
+
+    @Test
+    public void givenPermitsInUse_whenResize_thenFollowNewPermitCount() {
+        // given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(4, 10, 1);
+        // when
+        filter.resize(6);
+        int grown = filter.availablePermits();
+        filter.resize(1);
+        // then
+        assertThat(grown).isEqualTo(6);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.udemyjunitmockito.archive;
+
+import com.example.udemyjunitmockito.model.ArchivedEmployee;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.repository.ArchivedEmployeeRepository;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EmployeeArchiverTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private ArchivedEmployeeRepository archivedEmployeeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private EmployeeArchiver employeeArchiver;
+
+    @BeforeEach
+    void setUp() {
+        employeeArchiver = new EmployeeArchiver(employeeRepository, transactionManager, true, 0, 2, 10);
+    }
+
+    @Test
+    public void givenSoftDeletedEmployees_whenArchive_thenMoveThemToArchiveInChunks() {
+        // given
+        Employee ramesh = employeeRepository.save(employee("Ramesh", "ramesh@gmail.com"));
+        Employee julia = employeeRepository.save(employee("Julia", "wronek@gmail.com"));
+        Employee jan = employeeRepository.save(employee("Jan", "kowalski@gmail.com"));
+        Employee anna = employeeRepository.save(employee("Anna", "nowak@gmail.com"));
+        employeeRepository.softDeleteAllById(List.of(ramesh.getId(), julia.getId(), jan.getId()));
+        entityManager.clear();
+        // when
+        int archived = employeeArchiver.archive();
+        // then
+        assertThat(archived).isEqualTo(3);
+        assertThat(archivedEmployeeRepository.findAll()).extracting(ArchivedEmployee::getEmail)
+                .containsExactlyInAnyOrder("ramesh@gmail.com", "wronek@gmail.com", "kowalski@gmail.com");
+        assertThat(archivedEmployeeRepository.findAll()).allMatch(archivedEmployee -> archivedEmployee.getDeletedAt() != null);
+        assertThat(employeeRepository.findAll()).extracting(Employee::getId).containsExactly(anna.getId());
+    }
+
+    @Test
+    public void givenRecentlyDeletedEmployee_whenArchive_thenKeepItInHotTable() {
+        // given
+        employeeArchiver = new EmployeeArchiver(employeeRepository, transactionManager, true, 3600, 2, 10);
+        Employee ramesh = employeeRepository.save(employee("Ramesh", "ramesh@gmail.com"));
+        employeeRepository.softDeleteAllById(List.of(ramesh.getId()));
+        entityManager.clear();
+        // when
+        int archived = employeeArchiver.archive();
+        // then
+        assertThat(archived).isZero();
+        assertThat(archivedEmployeeRepository.count()).isZero();
+        assertThat(employeeRepository.findById(ramesh.getId())).isEmpty();
+    }
+
+    @Test
+    public void givenSoftDeletedEmail_whenSaveEmployeeWithSameEmail_thenReleaseEmailToArchive() {
+        // given
+        Employee ramesh = employeeRepository.save(employee("Ramesh", "ramesh@gmail.com"));
+        employeeRepository.deleteById(ramesh.getId());
+        entityManager.flush();
+        entityManager.clear();
+        // when
+        int released = employeeRepository.releaseDeletedEmails(List.of("ramesh@gmail.com"));
+        Employee saved = employeeRepository.saveAndFlush(employee("Ramesh", "ramesh@gmail.com"));
+        // then
+        assertThat(released).isEqualTo(1);
+        assertThat(saved.getId()).isNotEqualTo(ramesh.getId());
+        assertThat(archivedEmployeeRepository.findByEmail("ramesh@gmail.com")).extracting(ArchivedEmployee::getId)
+                .containsExactly(ramesh.getId());
+    }
+
+    private static Employee employee(String firstName, String email) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Ramesh")
+                .email(email)
+                .build();
+    }
+}
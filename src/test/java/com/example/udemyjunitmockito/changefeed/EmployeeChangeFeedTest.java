@@ -0,0 +1,163 @@
+package com.example.udemyjunitmockito.changefeed;
+
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeChangeFeedTest {
+
+    private static final int BATCH_SIZE = 4;
+    private static final int MAX_LAG = 16;
+
+    private EmployeeChangeRingBuffer ringBuffer;
+    private EmployeeChangeFeed changeFeed;
+    private CountDownLatch sendGate;
+
+    @BeforeEach
+    void setUp() {
+        ringBuffer = new EmployeeChangeRingBuffer(64);
+        sendGate = new CountDownLatch(0);
+        changeFeed = new EmployeeChangeFeed(ringBuffer, 60_000, BATCH_SIZE, MAX_LAG, 1) {
+            @Override
+            SseEmitter createEmitter() {
+                return new RecordingEmitter(sendGate);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    public void givenBurstsLargerThanTwoBatches_whenDispatch_thenFastSubscriberCatchesUpAndStaysConnected() throws InterruptedException {
+        // given
+        changeFeed.subscribe(null);
+        for (int round = 0; round < 5; round++) {
+            for (int event = 0; event < BATCH_SIZE * 3; event++) {
+                ringBuffer.publish(EmployeeChangeType.UPDATED, event, null);
+            }
+            // when
+            changeFeed.dispatch();
+            awaitCaughtUp();
+        }
+        // then
+        assertThat(changeFeed.subscriberCount()).isEqualTo(1);
+        assertThat(changeFeed.slowestCursor()).isEqualTo(ringBuffer.lastSequence());
+    }
+
+    @Test
+    public void givenSlowConsumerMidSend_whenDispatchDisconnectsIt_thenSendResetAndComplete() throws InterruptedException {
+        // given
+        sendGate = new CountDownLatch(1);
+        RecordingEmitter emitter = (RecordingEmitter) changeFeed.subscribe(null);
+        ringBuffer.publish(EmployeeChangeType.UPDATED, 1, null);
+        changeFeed.dispatch();
+        assertThat(emitter.sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int event = 0; event <= MAX_LAG; event++) {
+            ringBuffer.publish(EmployeeChangeType.UPDATED, event, null);
+        }
+        // when
+        changeFeed.dispatch();
+        sendGate.countDown();
+        // then
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(changeFeed.subscriberCount()).isZero();
+        assertThat(emitter.names()).containsExactly("UPDATED", "RESET");
+    }
+
+    @Test
+    public void givenSequenceStillInRing_whenSubscribeFromIt_thenResumeWithFollowingEvents() throws InterruptedException {
+        // given
+        for (int event = 0; event < 10; event++) {
+            ringBuffer.publish(EmployeeChangeType.CREATED, event, null);
+        }
+        // when
+        RecordingEmitter emitter = (RecordingEmitter) changeFeed.subscribe(6L);
+        changeFeed.dispatch();
+        awaitCaughtUp();
+        // then
+        assertThat(emitter.ids()).containsExactly("7", "8", "9", "10");
+        assertThat(changeFeed.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenSequenceOverwrittenInRing_whenSubscribeFromIt_thenResetToLastSequence() throws InterruptedException {
+        // given
+        for (int event = 0; event < 100; event++) {
+            ringBuffer.publish(EmployeeChangeType.CREATED, event, null);
+        }
+        // when
+        RecordingEmitter emitter = (RecordingEmitter) changeFeed.subscribe(1L);
+        // then
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.names()).containsExactly("RESET");
+        assertThat(emitter.sent).singleElement().asString().contains("data:100");
+        assertThat(changeFeed.subscriberCount()).isZero();
+    }
+
+    private void awaitCaughtUp() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (changeFeed.subscriberCount() > 0 && changeFeed.slowestCursor() < ringBuffer.lastSequence()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch sendGate;
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch sendGate) {
+            this.sendGate = sendGate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendStarted.countDown();
+            try {
+                sendGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            sent.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private List<String> names() {
+            return field("event:");
+        }
+
+        private List<String> ids() {
+            return field("id:");
+        }
+
+        private List<String> field(String prefix) {
+            return sent.stream()
+                    .flatMap(text -> text.lines().filter(line -> line.startsWith(prefix)))
+                    .map(line -> line.substring(prefix.length()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
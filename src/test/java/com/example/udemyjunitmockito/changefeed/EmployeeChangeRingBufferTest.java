@@ -0,0 +1,65 @@
+package com.example.udemyjunitmockito.changefeed;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeEvent;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeChangeRingBufferTest {
+
+    private EmployeeChangeRingBuffer ringBuffer;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        ringBuffer = new EmployeeChangeRingBuffer(4);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+    }
+
+    @Test
+    public void givenPublishedEvents_whenRead_thenReturnEventsInSequenceOrder() {
+        // given
+        ringBuffer.publish(EmployeeChangeType.CREATED, 1L, employee);
+        ringBuffer.publish(EmployeeChangeType.UPDATED, 1L, employee);
+        ringBuffer.publish(EmployeeChangeType.DELETED, 1L, null);
+        // when
+        List<EmployeeChangeEvent> events = ringBuffer.read(1L, 10);
+        // then
+        assertThat(events).extracting(EmployeeChangeEvent::getSequence).containsExactly(2L, 3L);
+        assertThat(events).extracting(EmployeeChangeEvent::getType)
+                .containsExactly(EmployeeChangeType.UPDATED, EmployeeChangeType.DELETED);
+    }
+
+    @Test
+    public void givenPublishedEmployee_whenEmployeeModified_thenEventKeepsOriginalValues() {
+        // given
+        ringBuffer.publish(EmployeeChangeType.CREATED, 1L, employee);
+        // when
+        employee.setEmail("updatedEmail@gmail.com");
+        // then
+        assertThat(ringBuffer.read(0L, 1).get(0).getEmployee().getEmail()).isEqualTo("ramesh@gmail.com");
+    }
+
+    @Test
+    public void givenLappedConsumer_whenRead_thenThrowsException() {
+        // given
+        for (int i = 0; i < 6; i++) {
+            ringBuffer.publish(EmployeeChangeType.UPDATED, 1L, employee);
+        }
+        // when
+        assertThrows(ChangeFeedOverrunException.class, () -> ringBuffer.read(1L, 10));
+        // then
+        assertThat(ringBuffer.read(2L, 10)).hasSize(4);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.udemyjunitmockito.coherence;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeCacheCoherencePollerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private EmployeeChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:coherence;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT PRIMARY KEY, " +
+                "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE employee_changes (seq BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "employee_id BIGINT NOT NULL, change_type VARCHAR(16) NOT NULL, changed_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.update("INSERT INTO employees VALUES (1, 'Ramesh', 'Ramesh', 'ramesh@gmail.com')");
+        jdbcTemplate.update("INSERT INTO employees VALUES (2, 'Julia', 'Wronek', 'wronek@gmail.com')");
+        changeLog = new EmployeeChangeLog(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void givenTwoInstances_whenOneUpdatesEmployee_thenOtherEvictsItOnNextPoll() {
+        // given
+        Instance writer = new Instance(60_000);
+        Instance reader = new Instance(60_000);
+        writer.poller.poll();
+        reader.poller.poll();
+        assertThat(reader.getFirstName(1L)).isEqualTo("Ramesh");
+        // when
+        writer.updateFirstName(1L, "Updated");
+        String beforePoll = reader.getFirstName(1L);
+        int evicted = reader.poller.poll();
+        // then
+        assertThat(beforePoll).isEqualTo("Ramesh");
+        assertThat(evicted).isEqualTo(1);
+        assertThat(reader.getFirstName(1L)).isEqualTo("Updated");
+        assertThat(writer.getFirstName(1L)).isEqualTo("Updated");
+        assertThat(reader.meterRegistry.get("employee.cache.coherence.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenChangeCommittedOutOfOrder_whenPoll_thenKeepWatermarkBelowGapUntilItIsFilled() {
+        // given
+        Instance reader = new Instance(60_000);
+        reader.poller.poll();
+        long start = reader.poller.getWatermark();
+        assertThat(reader.getFirstName(2L)).isEqualTo("Julia");
+        appendChange(start + 2, 1L);
+        // when
+        reader.poller.poll();
+        long watermarkWithGap = reader.poller.getWatermark();
+        jdbcTemplate.update("UPDATE employees SET first_name = 'Updated' WHERE id = 2");
+        appendChange(start + 1, 2L);
+        int evicted = reader.poller.poll();
+        // then
+        assertThat(watermarkWithGap).isEqualTo(start);
+        assertThat(evicted).isEqualTo(1);
+        assertThat(reader.poller.getWatermark()).isEqualTo(start + 2);
+        assertThat(reader.getFirstName(2L)).isEqualTo("Updated");
+    }
+
+    @Test
+    public void givenGapOlderThanTimeout_whenPoll_thenSkipGap() {
+        // given
+        Instance reader = new Instance(0);
+        reader.poller.poll();
+        long start = reader.poller.getWatermark();
+        appendChange(start + 3, 1L);
+        // when
+        reader.poller.poll();
+        // then
+        assertThat(reader.poller.getWatermark()).isEqualTo(start + 3);
+        assertThat(reader.meterRegistry.get("employee.cache.coherence.gaps.skipped").counter().count()).isEqualTo(1);
+    }
+
+    private void appendChange(long sequence, long employeeId) {
+        jdbcTemplate.update("INSERT INTO employee_changes (seq, employee_id, change_type, changed_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP)",
+                sequence, employeeId, EmployeeChangeType.UPDATED.name());
+    }
+
+    private final class Instance {
+        private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final EmployeeCache employeeCache = new EmployeeCache(new CaffeineCacheManager(EmployeeCache.NAME), true);
+        private final EmployeeCacheCoherencePoller poller;
+
+        private Instance(long gapTimeoutMs) {
+            poller = new EmployeeCacheCoherencePoller(changeLog, employeeCache, meterRegistry, 500, 100, gapTimeoutMs, 3_600_000);
+        }
+
+        private String getFirstName(long id) {
+            return employeeCache.get(id, this::load).map(Employee::getFirstName).orElse(null);
+        }
+
+        private void updateFirstName(long id, String firstName) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE employees SET first_name = ? WHERE id = ?", firstName, id);
+                changeLog.append(id, EmployeeChangeType.UPDATED);
+            });
+            employeeCache.evict(id);
+        }
+
+        private Optional<Employee> load(long id) {
+            return jdbcTemplate.query("SELECT * FROM employees WHERE id = ?", (rs, rowNum) -> Employee.builder()
+                    .id(rs.getLong("id"))
+                    .firstName(rs.getString("first_name"))
+                    .lastName(rs.getString("last_name"))
+                    .email(rs.getString("email"))
+                    .build(), id).stream().findFirst();
+        }
+    }
+}
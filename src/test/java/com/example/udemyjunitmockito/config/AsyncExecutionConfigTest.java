@@ -0,0 +1,41 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.datasource.PoolResizedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncExecutionConfigTest {
+
+    private final AsyncExecutionConfig config = new AsyncExecutionConfig();
+    private final ThreadPoolExecutor executor = config.employeeDatabaseExecutor(0, 4, 10, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenThreadsFollowPool_whenPoolResized_thenResizeExecutor() {
+        // when
+        config.employeeDatabaseExecutorResizer(0, executor).onApplicationEvent(new PoolResizedEvent(this, 8));
+        int grown = executor.getMaximumPoolSize();
+        config.employeeDatabaseExecutorResizer(0, executor).onApplicationEvent(new PoolResizedEvent(this, 2));
+        // then
+        assertThat(grown).isEqualTo(8);
+        assertThat(executor.getCorePoolSize()).isEqualTo(2);
+        assertThat(executor.getMaximumPoolSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenPinnedThreadCount_whenPoolResized_thenKeepExecutorSize() {
+        // when
+        config.employeeDatabaseExecutorResizer(4, executor).onApplicationEvent(new PoolResizedEvent(this, 8));
+        // then
+        assertThat(executor.getMaximumPoolSize()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Puts 1000 concurrent clients on GET /api/employees/{id} and reports latency and throughput for
+ * one execution mode. Run it once per mode and compare the tables:
+ * {@code mvn test -Pbenchmark -Dtest=ExecutionModeLoadBenchmarkTest -Dbenchmark.execution-mode=virtual}.
+ * The build targets Java 17, so the virtual mode needs the forked test JVM pointed at a Java 21
+ * runtime with {@code -Djvm=<java 21>/bin/java}. Admission control is off so rejected requests do not
+ * hide the difference between the modes. {@code -Dbenchmark.clients} and
+ * {@code -Dbenchmark.requests-per-client} change the load.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:execution-mode-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.main.web-application-type=servlet",
+        "employee.warm-up.enabled=false",
+        "employee.admission.enabled=false"})
+class ExecutionModeLoadBenchmarkTest {
+
+    private static final String MODE = System.getProperty("benchmark.execution-mode", "platform");
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests-per-client", 20);
+    private static final int EMPLOYEES = 500;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private EmployeeService employeeService;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void executionMode(DynamicPropertyRegistry registry) {
+        registry.add("employee.execution.mode", () -> MODE);
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int index = 0; index < EMPLOYEES; index++) {
+            ids.add(employeeService.saveEmployee(Employee.builder()
+                    .firstName("First" + index)
+                    .lastName("Last" + index)
+                    .email("load" + index + "@gmail.com")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ids.forEach(employeeService::deleteEmployee);
+    }
+
+    @Test
+    public void givenThousandConcurrentClients_whenGettingEmployees_thenReportLatencyAndThroughput() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String baseUrl = "http://localhost:" + port + "/api/employees/";
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            get(httpClient, baseUrl + ids.get(iteration % EMPLOYEES));
+        }
+
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> results = new ArrayList<>(CLIENTS);
+        for (int client = 0; client < CLIENTS; client++) {
+            int firstSlot = client * REQUESTS_PER_CLIENT;
+            results.add(clients.submit(() -> {
+                startGate.await();
+                for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                    int slot = firstSlot + request;
+                    long start = System.nanoTime();
+                    if (get(httpClient, baseUrl + ids.get(slot % EMPLOYEES)) != 200) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[slot] = System.nanoTime() - start;
+                }
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        clients.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.println(String.format("%n%-10s %8s %10s %10s %10s %12s %9s", "mode", "clients", "p50 ms", "p99 ms", "max ms",
+                "requests/s", "failures"));
+        System.out.println(String.format("%-10s %8d %10.2f %10.2f %10.2f %12.0f %9d", MODE, CLIENTS,
+                percentileMillis(latencies, 0.5), percentileMillis(latencies, 0.99),
+                latencies[latencies.length - 1] / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                latencies.length / (elapsedNanos / 1_000_000_000.0), failures.get()));
+
+        assertThat(failures.get()).isZero();
+    }
+
+    private static int get(HttpClient httpClient, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static double percentileMillis(long[] latencies, double percentile) {
+        int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+        return latencies[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.udemyjunitmockito.config;
+
+import com.example.udemyjunitmockito.admission.ConnectionPermitFilter;
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    public void givenPlatformMode_whenStartContext_thenDoNotRegisterVirtualThreadBeans() {
+        contextRunner.withPropertyValues("employee.execution.mode=platform")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).doesNotHaveBean(VirtualThreadConfig.class);
+                    assertThat(context).doesNotHaveBean(ExecutorService.class);
+                });
+    }
+
+    @Test
+    public void givenVirtualModeBelowJava21_whenStartContext_thenFailWithClearMessage() {
+        assumeTrue(Runtime.version().feature() < VirtualThreadConfig.VIRTUAL_THREADS_FEATURE_VERSION);
+        contextRunner.withPropertyValues("employee.execution.mode=virtual")
+                .run(context -> {
+                    assertThat(context).hasFailed();
+                    assertThat(context.getStartupFailure()).getRootCause()
+                            .isInstanceOf(IllegalStateException.class)
+                            .hasMessageContaining("employee.execution.mode=virtual requires Java 21");
+                });
+    }
+
+    @Test
+    public void givenVirtualModeOnJava21_whenStartContext_thenRunRequestsOnVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= VirtualThreadConfig.VIRTUAL_THREADS_FEATURE_VERSION);
+        contextRunner.withPropertyValues("employee.execution.mode=virtual")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+                    ExecutorService executor = context.getBean("virtualThreadExecutor", ExecutorService.class);
+                    Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                            .get(5, TimeUnit.SECONDS);
+                    assertThat(virtual).isEqualTo(Boolean.TRUE);
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenExecutor_whenCustomizeProtocolHandler_thenServeRequestsOnIt() {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+        // when
+        ((TomcatProtocolHandlerCustomizer<ProtocolHandler>) new VirtualThreadConfig().virtualThreadProtocolHandlerCustomizer(executor))
+                .customize(protocolHandler);
+        // then
+        verify(protocolHandler).setExecutor(executor);
+        executor.shutdown();
+    }
+
+    @Test
+    public void givenNoPinnedPermits_whenConnectionPermitFilter_thenUseHikariPoolSize() {
+        // when
+        ConnectionPermitFilter filter = new VirtualThreadConfig().connectionPermitFilter(0, 12, 1000, 1).getFilter();
+        // then
+        assertThat(filter.availablePermits()).isEqualTo(12);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.idempotency.IdempotencyStore;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.AsyncEmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = EmployeeAsyncController.class, properties = "employee.idempotency.wait-timeout-ms=200")
+@Import(IdempotencyStore.class)
+class EmployeeAsyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private AsyncEmployeeService asyncEmployeeService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void givenFullExecutorQueue_whenCreateEmployee_thenReturn503WithRetryAfter() throws Exception {
+        // given
+        given(asyncEmployeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new RejectedExecutionException("queue full"));
+        // when
+        mockMvc.perform(post("/api/async/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee())))
+                // then
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    public void givenRejectionCompletingFuture_whenGetAllEmployees_thenReturn503WithRetryAfter() throws Exception {
+        // given
+        given(asyncEmployeeService.getAllEmployees())
+                .willReturn(CompletableFuture.failedFuture(new RejectedExecutionException("queue full")));
+        // when
+        MvcResult result = mockMvc.perform(get("/api/async/employees"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturn404() throws Exception {
+        // given
+        given(asyncEmployeeService.getEmployeeById(1L)).willReturn(CompletableFuture.completedFuture(Optional.empty()));
+        // when
+        MvcResult result = mockMvc.perform(get("/api/async/employees/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void givenNonExistingEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
+        // given
+        given(asyncEmployeeService.updateEmployee(any(Long.class), any(Employee.class)))
+                .willReturn(CompletableFuture.completedFuture(Optional.empty()));
+        // when
+        MvcResult result = mockMvc.perform(put("/api/async/employees/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void givenRepeatedIdempotencyKey_whenCreateEmployee_thenSaveEmployeeOnce() throws Exception {
+        // given
+        given(asyncEmployeeService.saveEmployee(any(Employee.class)))
+                .willAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        // when
+        for (int attempt = 0; attempt < 2; attempt++) {
+            MvcResult result = mockMvc.perform(post("/api/async/employees")
+                            .header("Idempotency-Key", "create-ramesh-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(employee())))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.email", is("ramesh@gmail.com")));
+        }
+        // then
+        verify(asyncEmployeeService, times(1)).saveEmployee(any(Employee.class));
+    }
+
+    @Test
+    public void givenFirstCreateStillRunning_whenCreateEmployeeWithSameKey_thenReturn409AfterWaitTimeout() throws Exception {
+        // given
+        given(asyncEmployeeService.saveEmployee(any(Employee.class))).willReturn(new CompletableFuture<>());
+        mockMvc.perform(post("/api/async/employees")
+                .header("Idempotency-Key", "create-slowly-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee())));
+        // when
+        MvcResult result = mockMvc.perform(post("/api/async/employees")
+                        .header("Idempotency-Key", "create-slowly-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        verify(asyncEmployeeService, times(1)).saveEmployee(any(Employee.class));
+    }
+
+    @Test
+    public void givenIdempotencyKeyReusedWithDifferentBody_whenCreateEmployee_thenReturn422() throws Exception {
+        // given
+        given(asyncEmployeeService.saveEmployee(any(Employee.class)))
+                .willAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        Employee otherEmployee = Employee.builder()
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("kowalski@gmail.com")
+                .build();
+        MvcResult first = mockMvc.perform(post("/api/async/employees")
+                        .header("Idempotency-Key", "create-once-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee())))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(first));
+        // when
+        mockMvc.perform(post("/api/async/employees")
+                        .header("Idempotency-Key", "create-once-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherEmployee)))
+                // then
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private static Employee employee() {
+        return Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+    }
+}
@@ -1,4 +1,5 @@
 package com.example.udemyjunitmockito.controller;
+import com.example.udemyjunitmockito.idempotency.IdempotencyStore;
 import com.example.udemyjunitmockito.model.Employee;
 import com.example.udemyjunitmockito.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,21 +8,29 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest
+@WebMvcTest(controllers = EmployeeController.class, properties = "employee.idempotency.wait-timeout-ms=1000")
+@Import(IdempotencyStore.class)
 class EmployeeControllerTest {
 
     public static final long EMPLOYEE_ID = 1L;
@@ -56,6 +65,127 @@ class EmployeeControllerTest {
 
     }
 
+    @Test
+    public void givenRepeatedIdempotencyKey_whenCreateEmployee_thenSaveEmployeeOnce() throws Exception {
+        // given
+        employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+        // when
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ResultActions response = mockMvc.perform(post("/api/employees")
+                    .header("Idempotency-Key", "create-ramesh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(employee)));
+            response.andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        }
+        // then
+        verify(employeeService, times(1)).saveEmployee(any(Employee.class));
+    }
+
+    @Test
+    public void givenFirstRequestInFlight_whenCreateEmployeeWithSameKey_thenWaitForFirstResult() throws Exception {
+        // given
+        employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return invocation.getArgument(0);
+                });
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> createWithKey("create-concurrently"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // when
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> createWithKey("create-concurrently"));
+        Thread.sleep(200);
+        boolean secondDoneWhileFirstInFlight = second.isDone();
+        release.countDown();
+        // then
+        assertThat(secondDoneWhileFirstInFlight).isFalse();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(201);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(201);
+        verify(employeeService, times(1)).saveEmployee(any(Employee.class));
+    }
+
+    @Test
+    public void givenFirstRequestOutlastingWaitTimeout_whenCreateEmployeeWithSameKey_thenReturn409() throws Exception {
+        // given
+        employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return invocation.getArgument(0);
+                });
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> createWithKey("create-slowly"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // when
+        int secondStatus = createWithKey("create-slowly");
+        release.countDown();
+        // then
+        assertThat(secondStatus).isEqualTo(409);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(201);
+    }
+
+    @Test
+    public void givenIdempotencyKeyReusedWithDifferentBody_whenCreateEmployee_thenReturn422() throws Exception {
+        // given
+        employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+        Employee otherEmployee = Employee.builder()
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("kowalski@gmail.com")
+                .build();
+
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+        mockMvc.perform(post("/api/employees")
+                .header("Idempotency-Key", "create-once")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+        // when
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .header("Idempotency-Key", "create-once")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(otherEmployee)));
+        // then
+        response.andExpect(status().isUnprocessableEntity());
+    }
+
+    private int createWithKey(String idempotencyKey) {
+        try {
+            return mockMvc.perform(post("/api/employees")
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(employee)))
+                    .andReturn().getResponse().getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Test
     public void givenEmployeesList_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
         // given
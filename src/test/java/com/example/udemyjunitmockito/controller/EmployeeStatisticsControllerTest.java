@@ -0,0 +1,60 @@
+package com.example.udemyjunitmockito.controller;
+
+import com.example.udemyjunitmockito.model.AggregationMode;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import com.example.udemyjunitmockito.service.EmployeeAggregationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EmployeeStatisticsController.class)
+class EmployeeStatisticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private EmployeeAggregationService aggregationService;
+
+    @Test
+    public void givenNoMode_whenCountByEmailDomain_thenAggregateInDatabase() throws Exception {
+        // given
+        given(aggregationService.countByEmailDomain(AggregationMode.DATABASE))
+                .willReturn(List.of(new EmployeeCount("gmail.com", 2)));
+        // when
+        ResultActions response = mockMvc.perform(get("/api/employees/stats/email-domains"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key", is("gmail.com")))
+                .andExpect(jsonPath("$[0].count", is(2)));
+    }
+
+    @Test
+    public void givenSnapshotDisabled_whenCountBySnapshot_thenReturnServiceUnavailable() throws Exception {
+        // given
+        given(aggregationService.countByFirstName(AggregationMode.SNAPSHOT))
+                .willThrow(new IllegalStateException("Employee snapshot is disabled, set employee.snapshot.enabled=true"));
+        // when
+        ResultActions response = mockMvc.perform(get("/api/employees/stats/first-names").param("mode", "SNAPSHOT"));
+        // then
+        response.andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Employee snapshot is disabled, set employee.snapshot.enabled=true"));
+    }
+
+    @Test
+    public void givenUnknownMode_whenCountByLastNameInitial_thenReturnBadRequest() throws Exception {
+        // when
+        ResultActions response = mockMvc.perform(get("/api/employees/stats/last-name-initials").param("mode", "CACHE"));
+        // then
+        response.andExpect(status().isBadRequest());
+    }
+}
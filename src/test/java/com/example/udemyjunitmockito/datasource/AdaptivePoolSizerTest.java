@@ -0,0 +1,46 @@
+package com.example.udemyjunitmockito.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptivePoolSizerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AdaptivePoolSizer sizer = new AdaptivePoolSizer(2, 10, 2, 5 * MILLIS);
+
+    @Test
+    public void givenWaitingCallersAndFastQueries_whenNextSize_thenGrowUpToMaxSize() {
+        // when
+        int size = sizer.nextSize(6, 6, 4, 20 * MILLIS);
+        int cappedSize = sizer.nextSize(10, 10, 4, 20 * MILLIS);
+        // then
+        assertThat(size).isEqualTo(8);
+        assertThat(cappedSize).isEqualTo(10);
+    }
+
+    @Test
+    public void givenLongRunningWorkHoldingAllConnections_whenNextSize_thenKeepSize() {
+        // when
+        int size = sizer.nextSize(6, 6, 0, MILLIS);
+        // then
+        assertThat(size).isEqualTo(6);
+    }
+
+    @Test
+    public void givenMostlyIdlePool_whenNextSize_thenShrinkByOneDownToMinSize() {
+        // when
+        int size = sizer.nextSize(6, 1, 0, 0);
+        int floorSize = sizer.nextSize(2, 0, 0, 0);
+        // then
+        assertThat(size).isEqualTo(5);
+        assertThat(floorSize).isEqualTo(2);
+    }
+
+    @Test
+    public void givenMinSizeAboveMaxSize_whenCreate_thenThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePoolSizer(5, 4, 1, MILLIS));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.udemyjunitmockito.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Small load test: sixteen clients hold connections for a few milliseconds each against a pool
+ * that starts with two connections.
+ */
+class AdaptivePoolSizingControllerTest {
+
+    private static final int CLIENTS = 16;
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:adaptive;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName("adaptive");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(2);
+        dataSource.setMetricRegistry(meterRegistry);
+        dataSource.getConnection().close();
+        clients = Executors.newFixedThreadPool(CLIENTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        dataSource.close();
+    }
+
+    @Test
+    public void givenClientsWaitingForConnections_whenAdjust_thenGrowPoolAndCutAcquireTime() throws Exception {
+        // given
+        List<PoolResizedEvent> events = new ArrayList<>();
+        AdaptivePoolSizingController controller = new AdaptivePoolSizingController(dataSource, meterRegistry,
+                event -> events.add((PoolResizedEvent) event), 2, 16, 4, 1);
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", "adaptive").timer();
+        // when
+        double firstRoundMean = runLoad(acquire);
+        for (int round = 0; round < 4; round++) {
+            controller.adjust();
+            runLoad(acquire);
+        }
+        double lastRoundMean = runLoad(acquire);
+        // then
+        assertThat(dataSource.getHikariConfigMXBean().getMaximumPoolSize()).isGreaterThan(2);
+        assertThat(events).last().extracting(PoolResizedEvent::getMaximumPoolSize)
+                .isEqualTo(dataSource.getHikariConfigMXBean().getMaximumPoolSize());
+        assertThat(lastRoundMean).isLessThan(firstRoundMean);
+    }
+
+    private double runLoad(Timer acquire) throws Exception {
+        long countBefore = acquire.count();
+        double totalBefore = acquire.totalTime(TimeUnit.NANOSECONDS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            futures.add(clients.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    query();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return (acquire.totalTime(TimeUnit.NANOSECONDS) - totalBefore) / (acquire.count() - countBefore);
+    }
+
+    private void query() throws SQLException, InterruptedException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+            Thread.sleep(3);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.udemyjunitmockito.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+        routingDataSource = new ReadWriteRoutingDataSource(primary, List.of(replica));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void givenReadOnlyTransaction_whenQuery_thenUseReplica() {
+        // given
+        transactionTemplate.setReadOnly(true);
+        // when
+        String node = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        // then
+        assertThat(node).isEqualTo("replica");
+    }
+
+    @Test
+    public void givenReadWriteTransaction_whenQuery_thenUsePrimary() {
+        // when
+        String node = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        // then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    public void givenUnhealthyReplica_whenReadOnlyQuery_thenFallBackToPrimary() {
+        // given
+        routingDataSource.setReplicaHealthy(0, false);
+        transactionTemplate.setReadOnly(true);
+        // when
+        String node = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        // then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    public void givenLaggingReplica_whenHealthCheck_thenMarkReplicaUnhealthy() {
+        // given
+        new JdbcTemplate(replica).update("UPDATE node SET lag_seconds = 30");
+        ReplicaHealthChecker healthChecker = new ReplicaHealthChecker(routingDataSource, "SELECT lag_seconds FROM node", 5);
+        // when
+        healthChecker.check();
+        // then
+        assertThat(routingDataSource.isReplicaHealthy(0)).isFalse();
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20), lag_seconds BIGINT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
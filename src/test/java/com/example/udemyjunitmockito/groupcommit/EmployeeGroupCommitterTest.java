@@ -0,0 +1,83 @@
+package com.example.udemyjunitmockito.groupcommit;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeGroupCommitterTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeGroupCommitter groupCommitter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        groupCommitter = new EmployeeGroupCommitter(employeeRepository, transactionManager, meterRegistry,
+                true, 10, 5, 100);
+    }
+
+    @Test
+    public void givenBatchWithDuplicateEmailsInAnyCase_whenFlush_thenSaveUniqueEmployeesInOneCall() {
+        // given
+        Employee existing = employee("existing@gmail.com");
+        given(employeeRepository.findByEmailIn(anyCollection())).willReturn(List.of(existing));
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = new ArrayList<>(invocation.getArgument(0));
+            for (int i = 0; i < employees.size(); i++) {
+                employees.get(i).setId(i + 1);
+            }
+            return employees;
+        });
+        List<EmployeeGroupCommitter.PendingCreate> batch = new ArrayList<>(List.of(
+                new EmployeeGroupCommitter.PendingCreate(employee("ramesh@gmail.com")),
+                new EmployeeGroupCommitter.PendingCreate(employee("Ramesh@Gmail.com")),
+                new EmployeeGroupCommitter.PendingCreate(employee("EXISTING@gmail.com")),
+                new EmployeeGroupCommitter.PendingCreate(employee("kowalski@gmail.com"))));
+        List<CompletableFuture<Employee>> results = new ArrayList<>();
+        batch.forEach(pending -> results.add(pending.getResult()));
+        // when
+        groupCommitter.flush(batch);
+        // then
+        verify(employeeRepository, times(1)).saveAll(anyList());
+        assertThat(results.get(0).join().getId()).isEqualTo(1L);
+        assertThat(results.get(3).join().getId()).isEqualTo(2L);
+        CompletionException duplicate = assertThrows(CompletionException.class, () -> results.get(1).join());
+        assertThat(duplicate).hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThrows(CompletionException.class, () -> results.get(2).join());
+        assertThat(meterRegistry.get("employee.group.commit.flush.size").summary().totalAmount()).isEqualTo(4);
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email(email)
+                .build();
+    }
+}
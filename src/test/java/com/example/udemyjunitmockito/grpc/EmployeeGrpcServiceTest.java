@@ -0,0 +1,242 @@
+package com.example.udemyjunitmockito.grpc;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.grpc.proto.CreateEmployeesResponse;
+import com.example.udemyjunitmockito.grpc.proto.DeleteEmployeeRequest;
+import com.example.udemyjunitmockito.grpc.proto.EmployeeMessage;
+import com.example.udemyjunitmockito.grpc.proto.EmployeeServiceGrpc;
+import com.example.udemyjunitmockito.grpc.proto.ExportEmployeesRequest;
+import com.example.udemyjunitmockito.grpc.proto.GetEmployeeRequest;
+import com.example.udemyjunitmockito.grpc.proto.ListEmployeesRequest;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeGrpcServiceTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new EmployeeGrpcService(employeeService, 2))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void givenEmployeeId_whenGetEmployee_thenReturnEmployeeMessage() {
+        // given
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        // when
+        EmployeeMessage message = EmployeeServiceGrpc.newBlockingStub(channel)
+                .getEmployee(GetEmployeeRequest.newBuilder().setId(1L).build());
+        // then
+        assertThat(message.getId()).isEqualTo(1L);
+        assertThat(message.getFirstName()).isEqualTo("Ramesh");
+        assertThat(message.getEmail()).isEqualTo("ramesh@gmail.com");
+    }
+
+    @Test
+    public void givenMissingEmployee_whenGetEmployee_thenFailWithNotFound() {
+        // given
+        given(employeeService.getEmployeeById(2L)).willReturn(Optional.empty());
+        // when
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                EmployeeServiceGrpc.newBlockingStub(channel).getEmployee(GetEmployeeRequest.newBuilder().setId(2L).build()));
+        // then
+        assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+    }
+
+    @Test
+    public void givenEmployeesList_whenListEmployees_thenStreamEveryEmployee() {
+        // given
+        Employee employee1 = Employee.builder().id(2L).firstName("Jan").lastName("Kowalski").email("kowalski@gmail.com").build();
+        given(employeeService.getAllEmployees()).willReturn(List.of(employee, employee1));
+        // when
+        List<String> emails = new ArrayList<>();
+        EmployeeServiceGrpc.newBlockingStub(channel).listEmployees(ListEmployeesRequest.getDefaultInstance())
+                .forEachRemaining(message -> emails.add(message.getEmail()));
+        // then
+        assertThat(emails).containsExactly("ramesh@gmail.com", "kowalski@gmail.com");
+    }
+
+    @Test
+    public void givenSlowClient_whenListEmployees_thenSendOnlyWhatTheClientRequested() throws Exception {
+        // given
+        Employee employee1 = Employee.builder().id(2L).firstName("Jan").lastName("Kowalski").email("kowalski@gmail.com").build();
+        Employee employee2 = Employee.builder().id(3L).firstName("Julia").lastName("Wronek").email("wronek@gmail.com").build();
+        List<Employee> employees = List.of(employee, employee1, employee2);
+        AtomicInteger read = new AtomicInteger();
+        given(employeeService.getAllEmployees()).willReturn(new AbstractList<>() {
+            @Override
+            public Employee get(int index) {
+                read.incrementAndGet();
+                return employees.get(index);
+            }
+
+            @Override
+            public int size() {
+                return employees.size();
+            }
+        });
+        List<Long> ids = new ArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        AtomicReference<ClientCallStreamObserver<ListEmployeesRequest>> call = new AtomicReference<>();
+        // when
+        EmployeeServiceGrpc.newStub(channel).listEmployees(ListEmployeesRequest.getDefaultInstance(),
+                new ClientResponseObserver<ListEmployeesRequest, EmployeeMessage>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ListEmployeesRequest> requestStream) {
+                        call.set(requestStream);
+                        requestStream.disableAutoInboundFlowControl();
+                    }
+
+                    @Override
+                    public void onNext(EmployeeMessage message) {
+                        ids.add(message.getId());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        completed.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.complete(null);
+                    }
+                });
+        call.get().request(1);
+        int readBeforeRequest = read.get();
+        call.get().request(2);
+        completed.get(5, TimeUnit.SECONDS);
+        // then
+        assertThat(readBeforeRequest).isLessThan(employees.size());
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void givenMissingEmployee_whenDeleteEmployee_thenFailWithNotFound() {
+        // given
+        willThrow(new EmptyResultDataAccessException("No employee with id 2", 1)).given(employeeService).deleteEmployee(2L);
+        // when
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                EmployeeServiceGrpc.newBlockingStub(channel).deleteEmployee(DeleteEmployeeRequest.newBuilder().setId(2L).build()));
+        // then
+        assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+    }
+
+    @Test
+    public void givenThreeEmployees_whenExportEmployees_thenStreamThemPageByPage() {
+        // given
+        Employee employee1 = Employee.builder().id(2L).firstName("Jan").lastName("Kowalski").email("kowalski@gmail.com").build();
+        Employee employee2 = Employee.builder().id(3L).firstName("Julia").lastName("Wronek").email("wronek@gmail.com").build();
+        given(employeeService.getEmployeesAfter(0L, 2)).willReturn(List.of(employee, employee1));
+        given(employeeService.getEmployeesAfter(2L, 2)).willReturn(List.of(employee2));
+        // when
+        List<Long> ids = new ArrayList<>();
+        EmployeeServiceGrpc.newBlockingStub(channel).exportEmployees(ExportEmployeesRequest.getDefaultInstance())
+                .forEachRemaining(message -> ids.add(message.getId()));
+        // then
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+        verify(employeeService, times(2)).getEmployeesAfter(any(Long.class), any(Integer.class));
+    }
+
+    @Test
+    public void givenStreamWithDuplicateEmail_whenCreateEmployees_thenCreateOthersAndReportFailure() throws Exception {
+        // given
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willReturn(employee)
+                .willThrow(new ResourceNotFoundException("Employee already exist with given email:ramesh@gmail.com"))
+                .willReturn(employee);
+        CompletableFuture<CreateEmployeesResponse> response = new CompletableFuture<>();
+        // when
+        StreamObserver<EmployeeMessage> requests = EmployeeServiceGrpc.newStub(channel).createEmployees(new StreamObserver<>() {
+            @Override
+            public void onNext(CreateEmployeesResponse value) {
+                response.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                response.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        requests.onNext(message("ramesh@gmail.com"));
+        requests.onNext(message("ramesh@gmail.com"));
+        requests.onNext(message("kowalski@gmail.com"));
+        requests.onCompleted();
+        // then
+        CreateEmployeesResponse createResponse = response.get(5, TimeUnit.SECONDS);
+        assertThat(createResponse.getCreated()).isEqualTo(2);
+        assertThat(createResponse.getFailuresList()).hasSize(1);
+        assertThat(createResponse.getFailures(0).getIndex()).isEqualTo(1);
+        assertThat(createResponse.getFailures(0).getMessage()).contains("already exist");
+    }
+
+    private static EmployeeMessage message(String email) {
+        return EmployeeMessage.newBuilder()
+                .setFirstName("Ramesh")
+                .setLastName("Ramesh")
+                .setEmail(email)
+                .build();
+    }
+}
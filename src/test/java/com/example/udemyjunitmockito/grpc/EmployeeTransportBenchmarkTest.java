@@ -0,0 +1,152 @@
+package com.example.udemyjunitmockito.grpc;
+
+import com.example.udemyjunitmockito.grpc.proto.EmployeeMessage;
+import com.example.udemyjunitmockito.grpc.proto.EmployeeServiceGrpc;
+import com.example.udemyjunitmockito.grpc.proto.GetEmployeeRequest;
+import com.example.udemyjunitmockito.grpc.proto.ListEmployeesRequest;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the REST endpoints with the gRPC endpoint in one JVM, against the same service layer
+ * and embedded database. Both transports go over loopback TCP. Run it with
+ * {@code mvn test -Pbenchmark}; {@code -Dbenchmark.iterations} changes the number of timed calls.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:transport-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.main.web-application-type=servlet",
+        "employee.warm-up.enabled=false",
+        "employee.grpc.enabled=true",
+        "employee.grpc.port=0"})
+class EmployeeTransportBenchmarkTest {
+
+    private static final int EMPLOYEES = 500;
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 5000);
+    private static final int LIST_ITERATIONS = Math.max(1, ITERATIONS / 50);
+
+    @LocalServerPort
+    private int httpPort;
+    @Autowired
+    private EmployeeGrpcServer grpcServer;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub grpcStub;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        grpcStub = EmployeeServiceGrpc.newBlockingStub(channel);
+        for (int index = 0; index < EMPLOYEES; index++) {
+            ids.add(employeeService.saveEmployee(Employee.builder()
+                    .firstName("First" + index)
+                    .lastName("Last" + index)
+                    .email("benchmark" + index + "@gmail.com")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        ids.forEach(employeeService::deleteEmployee);
+    }
+
+    @Test
+    public void givenSameServiceLayer_whenCallingRestAndGrpc_thenReportLatencyAndThroughput() {
+        String baseUrl = "http://localhost:" + httpPort + "/api/employees";
+
+        Result restGet = measure("REST  GET /api/employees/{id}", ITERATIONS, iteration -> {
+            Employee employee = restTemplate.getForObject(baseUrl + "/" + ids.get(iteration % EMPLOYEES), Employee.class);
+            assertThat(employee).isNotNull();
+        });
+        Result grpcGet = measure("gRPC  GetEmployee", ITERATIONS, iteration -> {
+            EmployeeMessage message = grpcStub.getEmployee(GetEmployeeRequest.newBuilder()
+                    .setId(ids.get(iteration % EMPLOYEES))
+                    .build());
+            assertThat(message.getId()).isPositive();
+        });
+        Result restList = measure("REST  GET /api/employees", LIST_ITERATIONS, iteration -> {
+            Employee[] employees = restTemplate.getForObject(baseUrl, Employee[].class);
+            assertThat(employees).hasSizeGreaterThanOrEqualTo(EMPLOYEES);
+        });
+        Result grpcList = measure("gRPC  ListEmployees", LIST_ITERATIONS, iteration -> {
+            int count = 0;
+            for (Iterator<EmployeeMessage> messages = grpcStub.listEmployees(ListEmployeesRequest.getDefaultInstance()); messages.hasNext(); messages.next()) {
+                count++;
+            }
+            assertThat(count).isGreaterThanOrEqualTo(EMPLOYEES);
+        });
+
+        System.out.println(String.format("%n%-32s %10s %10s %10s %12s", "call", "p50 us", "p99 us", "max us", "calls/s"));
+        for (Result result : List.of(restGet, grpcGet, restList, grpcList)) {
+            System.out.println(result);
+        }
+    }
+
+    private static Result measure(String name, int iterations, IntConsumer call) {
+        for (int iteration = 0; iteration < Math.min(iterations, 1000); iteration++) {
+            call.accept(iteration);
+        }
+        long[] latencies = new long[iterations];
+        long start = System.nanoTime();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            long callStart = System.nanoTime();
+            call.accept(iteration);
+            latencies[iteration] = System.nanoTime() - callStart;
+        }
+        return new Result(name, latencies, System.nanoTime() - start);
+    }
+
+    private static final class Result {
+        private final String name;
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        private Result(String name, long[] latencies, long elapsedNanos) {
+            this.name = name;
+            this.latencies = latencies.clone();
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(this.latencies);
+        }
+
+        private long percentileMicros(double percentile) {
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return TimeUnit.NANOSECONDS.toMicros(latencies[Math.max(index, 0)]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %10d %10d %10d %12.0f", name, percentileMicros(0.5), percentileMicros(0.99),
+                    TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]),
+                    latencies.length / (elapsedNanos / 1_000_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.udemyjunitmockito.idempotency;
+
+import com.example.udemyjunitmockito.exception.IdempotencyKeyInProgressException;
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(2, 60_000, 1_000);
+    }
+
+    @Test
+    public void givenConcurrentRequestsWithSameKey_whenExecute_thenRunActionOnce() throws Exception {
+        // given
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("key", "body", () -> {
+            invocations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "created";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        // when
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("key", "body", () -> {
+            invocations.incrementAndGet();
+            return "created again";
+        }));
+        Thread.sleep(200);
+        boolean secondDoneWhileFirstInFlight = second.isDone();
+        release.countDown();
+        // then
+        assertThat(secondDoneWhileFirstInFlight).isFalse();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenActionOutlastingWaitTimeout_whenExecuteWithSameKey_thenThrowsInProgress() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("key", "body", () -> {
+            started.countDown();
+            await(release);
+            return "created";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        // when
+        assertThrows(IdempotencyKeyInProgressException.class, () -> idempotencyStore.execute("key", "body", () -> "created again"));
+        CompletableFuture<String> asyncWaiter = idempotencyStore.executeAsync("key", "body",
+                () -> CompletableFuture.completedFuture("created again"));
+        // then
+        ExecutionException asyncFailure = assertThrows(ExecutionException.class, () -> asyncWaiter.get(5, TimeUnit.SECONDS));
+        assertThat(asyncFailure).hasCauseInstanceOf(IdempotencyKeyInProgressException.class);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+    }
+
+    @Test
+    public void givenFailedAction_whenExecuteAgain_thenRunActionAgain() {
+        // given
+        assertThrows(ResourceNotFoundException.class, () -> idempotencyStore.execute("key", "body", () -> {
+            throw new ResourceNotFoundException("Employee already exist with given email:ramesh@gmail.com");
+        }));
+        // when
+        String result = idempotencyStore.execute("key", "body", () -> "created");
+        // then
+        assertThat(result).isEqualTo("created");
+    }
+
+    @Test
+    public void givenPendingAsyncAction_whenExecuteAsyncWithSameKey_thenShareResultWithoutRunningAgain() throws Exception {
+        // given
+        AtomicInteger invocations = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = idempotencyStore.executeAsync("key", "body", () -> {
+            invocations.incrementAndGet();
+            return pending;
+        });
+        // when
+        CompletableFuture<String> second = idempotencyStore.executeAsync("key", "body", () -> {
+            invocations.incrementAndGet();
+            return CompletableFuture.completedFuture("created again");
+        });
+        boolean secondDoneBeforeFirst = second.isDone();
+        pending.complete("created");
+        // then
+        assertThat(secondDoneBeforeFirst).isFalse();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenFailedAsyncAction_whenExecuteAsyncAgain_thenRunActionAgain() throws Exception {
+        // given
+        CompletableFuture<String> failed = idempotencyStore.executeAsync("key", "body", () ->
+                CompletableFuture.failedFuture(new ResourceNotFoundException("Employee already exist with given email:ramesh@gmail.com")));
+        assertThat(failed).isCompletedExceptionally();
+        // when
+        CompletableFuture<String> result = idempotencyStore.executeAsync("key", "body", () -> CompletableFuture.completedFuture("created"));
+        // then
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+    }
+
+    @Test
+    public void givenMoreKeysThanCapacity_whenExecute_thenEvictOldestKeys() {
+        // when
+        idempotencyStore.execute("first", "body", () -> "1");
+        idempotencyStore.execute("second", "body", () -> "2");
+        idempotencyStore.execute("third", "body", () -> "3");
+        // then
+        assertThat(idempotencyStore.size()).isEqualTo(2);
+        assertThat(idempotencyStore.execute("first", "body", () -> "recomputed")).isEqualTo("recomputed");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.udemyjunitmockito.importer;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeImportReport;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeCsvImporterTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeCsvImporter csvImporter;
+
+    @BeforeEach
+    void setUp() {
+        csvImporter = new EmployeeCsvImporter(employeeRepository, transactionManager, 2, 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        csvImporter.shutdown();
+    }
+
+    @Test
+    public void givenCsvWithInvalidAndDuplicateRows_whenImportCsv_thenStoreValidRowsAndReportErrors() {
+        // given
+        String csv = "first_name,last_name,email\n" +
+                "Ramesh,Ramesh,Ramesh@Gmail.com\n" +
+                "\"Kowalski, Jan\",Kowalski,kowalski@gmail.com\n" +
+                ",Wronek,wronek@gmail.com\n" +
+                "Julia,Wronek,not-an-email\n" +
+                "Ramesh,Duplicate,ramesh@gmail.com\n" +
+                "Anna,Existing,existing@gmail.com\n";
+        given(employeeRepository.findByEmailIn(anyCollection())).willAnswer(invocation -> {
+            List<Employee> existing = new ArrayList<>();
+            if (invocation.<Collection<String>>getArgument(0).contains("existing@gmail.com")) {
+                existing.add(Employee.builder().id(9L).email("existing@gmail.com").build());
+            }
+            return existing;
+        });
+        ArgumentCaptor<List<Employee>> saved = ArgumentCaptor.forClass(List.class);
+        // when
+        EmployeeImportReport report = csvImporter.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), csvImporter.start("import-1"));
+        // then
+        assertThat(report.getStatus()).isEqualTo(EmployeeImportReport.Status.COMPLETED);
+        assertThat(report.getRowsRead()).isEqualTo(6);
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getRowsFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(EmployeeImportReport.RowError::getRow).containsExactly(4L, 5L, 6L, 7L);
+        verify(employeeRepository, atLeastOnce()).saveAll(saved.capture());
+        assertThat(saved.getAllValues().stream().flatMap(List::stream))
+                .extracting(Employee::getEmail)
+                .containsExactly("Ramesh@Gmail.com", "kowalski@gmail.com");
+        assertThat(csvImporter.getReport("import-1")).containsSame(report);
+    }
+
+    @Test
+    public void givenChunkThatFailsToStore_whenImportCsv_thenReportEveryRowOnce() {
+        // given
+        String csv = "first_name,last_name,email\n" +
+                "Ramesh,Ramesh,ramesh@gmail.com\n" +
+                "Anna,Existing,Existing@gmail.com\n";
+        given(employeeRepository.findByEmailIn(anyCollection()))
+                .willReturn(List.of(Employee.builder().id(9L).email("existing@gmail.com").build()));
+        given(employeeRepository.saveAll(anyList())).willThrow(new DataIntegrityViolationException("uk_employees_email_normalized"));
+        // when
+        EmployeeImportReport report = csvImporter.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), csvImporter.start("import-2"));
+        // then
+        assertThat(report.getRowsImported()).isZero();
+        assertThat(report.getRowsFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(EmployeeImportReport.RowError::getRow).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void givenCsvWithoutRequiredColumns_whenImportCsv_thenFailImport() {
+        // given
+        String csv = "name,email\nRamesh,ramesh@gmail.com\n";
+        // when
+        EmployeeImportReport report = csvImporter.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), csvImporter.start(null));
+        // then
+        assertThat(report.getStatus()).isEqualTo(EmployeeImportReport.Status.FAILED);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.udemyjunitmockito.jobs;
+
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobStatus;
+import com.example.udemyjunitmockito.model.BulkJobType;
+import com.example.udemyjunitmockito.repository.BulkJobRepository;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobExecutorTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private BulkJobRepository jobRepository;
+    @Mock
+    private EmployeeChangeLog changeLog;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkJobExecutor jobExecutor;
+    private BulkJob job;
+
+    @BeforeEach
+    void setUp() {
+        jobExecutor = new BulkJobExecutor(employeeRepository, jobRepository, changeLog, transactionManager, 2, 1, 10, 30000);
+        job = BulkJob.builder()
+                .id("job-1")
+                .type(BulkJobType.REWRITE_EMAIL_DOMAIN)
+                .status(BulkJobStatus.QUEUED)
+                .sourceDomain("gmail.com")
+                .targetDomain("example.com")
+                .createdAt(Instant.now())
+                .ownerId("instance-1")
+                .build();
+        lenient().when(jobRepository.updateProgress(eq("job-1"), eq("instance-1"), anyInt(), anyInt(), anyInt(), anyLong(), any(), any(Instant.class)))
+                .thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.shutdown();
+    }
+
+    @Test
+    public void givenIdRange_whenRun_thenRewriteEveryPartitionAndComplete() {
+        // given
+        given(employeeRepository.findMinId()).willReturn(1L);
+        given(employeeRepository.findMaxId()).willReturn(35L);
+        given(employeeRepository.rewriteEmailDomain(anyLong(), anyLong(), eq("gmail.com"), eq("example.com"))).willReturn(3);
+        // when
+        jobExecutor.run(new BulkJobExecutor.RunningJob(job));
+        // then
+        verify(employeeRepository).rewriteEmailDomain(1L, 10L, "gmail.com", "example.com");
+        verify(employeeRepository).rewriteEmailDomain(11L, 20L, "gmail.com", "example.com");
+        verify(employeeRepository).rewriteEmailDomain(21L, 30L, "gmail.com", "example.com");
+        verify(employeeRepository).rewriteEmailDomain(31L, 35L, "gmail.com", "example.com");
+        assertThat(job.getStatus()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(job.getTotalPartitions()).isEqualTo(4);
+        assertThat(job.getCompletedPartitions()).isEqualTo(4);
+        assertThat(job.getAffectedRows()).isEqualTo(12L);
+        assertThat(job.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    public void givenFailingPartition_whenRun_thenContinueAndMarkJobFailed() {
+        // given
+        job.setType(BulkJobType.PURGE_EMAIL_DOMAIN);
+        given(employeeRepository.findMinId()).willReturn(1L);
+        given(employeeRepository.findMaxId()).willReturn(20L);
+        given(employeeRepository.deleteByEmailDomain(1L, 10L, "gmail.com")).willThrow(new DataIntegrityViolationException("boom"));
+        given(employeeRepository.deleteByEmailDomain(11L, 20L, "gmail.com")).willReturn(5);
+        // when
+        jobExecutor.run(new BulkJobExecutor.RunningJob(job));
+        // then
+        assertThat(job.getStatus()).isEqualTo(BulkJobStatus.FAILED);
+        assertThat(job.getCompletedPartitions()).isEqualTo(1);
+        assertThat(job.getFailedPartitions()).isEqualTo(1);
+        assertThat(job.getAffectedRows()).isEqualTo(5L);
+        assertThat(job.getLastError()).contains("ids 1-10");
+    }
+
+    @Test
+    public void givenEmptyTable_whenRun_thenCompleteWithoutPartitions() {
+        // given
+        given(employeeRepository.findMinId()).willReturn(null);
+        given(employeeRepository.findMaxId()).willReturn(null);
+        // when
+        jobExecutor.run(new BulkJobExecutor.RunningJob(job));
+        // then
+        assertThat(job.getStatus()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(job.getTotalPartitions()).isZero();
+        verify(jobRepository, times(1)).updateProgress(eq("job-1"), eq("instance-1"), eq(0), eq(0), eq(0), eq(0L), any(), any(Instant.class));
+        verify(jobRepository).finish(eq("job-1"), eq("instance-1"), eq(BulkJobStatus.COMPLETED), any(Instant.class), eq(BulkJobStatus.RUNNING));
+    }
+
+    @Test
+    public void givenJobRecordingFinalStatus_whenCancel_thenRefuseCancellation() throws Exception {
+        // given
+        given(employeeRepository.findMinId()).willReturn(null);
+        given(employeeRepository.findMaxId()).willReturn(null);
+        List<Boolean> cancelWhileFinishing = new CopyOnWriteArrayList<>();
+        given(jobRepository.finish(eq("job-1"), eq("instance-1"), eq(BulkJobStatus.COMPLETED), any(Instant.class), eq(BulkJobStatus.RUNNING)))
+                .willAnswer(invocation -> {
+                    cancelWhileFinishing.add(jobExecutor.cancel(job.getId()));
+                    return 1;
+                });
+        // when
+        jobExecutor.start(job);
+        for (int attempt = 0; attempt < 100 && jobExecutor.isRunning(job.getId()); attempt++) {
+            Thread.sleep(10);
+        }
+        // then
+        assertThat(cancelWhileFinishing).containsExactly(false);
+        assertThat(job.getStatus()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(jobExecutor.cancel(job.getId())).isFalse();
+    }
+
+    @Test
+    public void givenCancelRequestedByAnotherInstance_whenRun_thenSkipPartitionsAndMarkCancelled() {
+        // given
+        given(employeeRepository.findMinId()).willReturn(1L);
+        given(employeeRepository.findMaxId()).willReturn(20L);
+        given(jobRepository.isCancelRequested("job-1")).willReturn(true);
+        // when
+        jobExecutor.run(new BulkJobExecutor.RunningJob(job));
+        // then
+        verify(employeeRepository, never()).rewriteEmailDomain(anyLong(), anyLong(), any(), any());
+        assertThat(job.getStatus()).isEqualTo(BulkJobStatus.CANCELLED);
+        verify(jobRepository).finish(eq("job-1"), eq("instance-1"), eq(BulkJobStatus.CANCELLED), any(Instant.class), eq(BulkJobStatus.RUNNING));
+    }
+
+    @Test
+    public void givenLeaseTakenOverByAnotherInstance_whenRun_thenStopBeforePartitions() {
+        // given
+        given(employeeRepository.findMinId()).willReturn(1L);
+        given(employeeRepository.findMaxId()).willReturn(20L);
+        given(jobRepository.updateProgress(eq("job-1"), eq("instance-1"), anyInt(), anyInt(), anyInt(), anyLong(), any(), any(Instant.class)))
+                .willReturn(0);
+        // when
+        jobExecutor.run(new BulkJobExecutor.RunningJob(job));
+        // then
+        verify(employeeRepository, never()).rewriteEmailDomain(anyLong(), anyLong(), any(), any());
+        assertThat(job.getStatus()).isEqualTo(BulkJobStatus.CANCELLED);
+    }
+
+    @Test
+    public void givenJobNotRunningHere_whenRequestCancel_thenFlagItAndCancelItIfAbandoned() {
+        // when
+        jobExecutor.requestCancel("job-1");
+        // then
+        verify(jobRepository).requestCancel(eq("job-1"), anyCollection());
+        verify(jobRepository).cancelAbandoned(eq("job-1"), any(Instant.class), any(Instant.class), anyCollection(), eq(BulkJobStatus.CANCELLED));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.udemyjunitmockito.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeFileLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private EmployeeFileLoader fileLoader;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:loader;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, " +
+                "email VARCHAR(255) NOT NULL, email_normalized VARCHAR(255) NOT NULL, email_hash BIGINT NOT NULL, " +
+                "CONSTRAINT uk_employees_email_normalized UNIQUE (email_normalized))");
+        fileLoader = new EmployeeFileLoader(jdbcTemplate, new DataSourceTransactionManager(dataSource), new ObjectMapper(), 3, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void givenCsvFile_whenLoad_thenInsertValidRowsAndRejectInvalidOnes() throws Exception {
+        // given
+        StringBuilder csv = new StringBuilder("first_name,last_name,email\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("Jan,Kowalski,employee").append(i).append("@gmail.com\n");
+        }
+        csv.append("Julia,Wronek,not-an-email\n")
+                .append("Ramesh,Duplicate,EMPLOYEE1@gmail.com\n")
+                .append("\"Kowalski, Jan\",Kowalski,last@gmail.com");
+        Path file = Files.writeString(directory.resolve("employees.csv"), csv);
+        // when
+        EmployeeFileLoader.LoadResult result = fileLoader.load(file);
+        // then
+        assertThat(result.getLoaded()).isEqualTo(101);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(101L);
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM employees WHERE email = 'last@gmail.com'", String.class))
+                .isEqualTo("Kowalski, Jan");
+    }
+
+    @Test
+    public void givenCsvWithReorderedColumns_whenLoad_thenMapFieldsByHeader() throws Exception {
+        // given
+        Path file = Files.writeString(directory.resolve("employees.csv"),
+                "\uFEFFEmail,department,LastName,FirstName\n" +
+                        "ramesh@gmail.com,IT,Fadatare,Ramesh\n" +
+                        "kowalski@gmail.com,HR,Kowalski,Jan\n");
+        // when
+        EmployeeFileLoader.LoadResult result = fileLoader.load(file);
+        // then
+        assertThat(result.getLoaded()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT first_name, last_name FROM employees WHERE email = 'ramesh@gmail.com'"))
+                .containsExactly(Map.of("FIRST_NAME", "Ramesh", "LAST_NAME", "Fadatare"));
+    }
+
+    @Test
+    public void givenCsvWithoutEmailColumn_whenLoad_thenThrowsException() throws Exception {
+        // given
+        Path file = Files.writeString(directory.resolve("employees.csv"), "first_name,last_name\nJan,Kowalski\n");
+        // when
+        assertThrows(IllegalArgumentException.class, () -> fileLoader.load(file));
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isZero();
+    }
+
+    @Test
+    public void givenNdjsonFile_whenLoad_thenInsertEmployees() throws Exception {
+        // given
+        Path file = Files.writeString(directory.resolve("employees.ndjson"),
+                "{\"firstName\":\"Ramesh\",\"lastName\":\"Ramesh\",\"email\":\"ramesh@gmail.com\"}\n" +
+                        "\n" +
+                        "{\"firstName\":\"Jan\",\"lastName\":\"Kowalski\",\"email\":\"kowalski@gmail.com\"}\n" +
+                        "{broken\n");
+        // when
+        EmployeeFileLoader.LoadResult result = fileLoader.load(file);
+        // then
+        assertThat(result.getLoaded()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenFile_whenSplit_thenChunksEndOnLineBreaksAndCoverFile() throws Exception {
+        // given
+        StringBuilder csv = new StringBuilder("first_name,last_name,email\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("Jan,Kowalski,employee").append(i).append("@gmail.com\n");
+        }
+        Path file = Files.writeString(directory.resolve("employees.csv"), csv);
+        byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+        // when
+        List<long[]> chunks;
+        try (FileChannel channel = FileChannel.open(file)) {
+            chunks = fileLoader.split(channel, true);
+        }
+        // then
+        assertThat(chunks.size()).isGreaterThan(1);
+        assertThat(chunks.get(0)[0]).isEqualTo("first_name,last_name,email\n".length());
+        assertThat(chunks.get(chunks.size() - 1)[1]).isEqualTo(content.length);
+        for (int i = 0; i < chunks.size(); i++) {
+            assertThat(content[(int) chunks.get(i)[1] - 1]).isEqualTo((byte) '\n');
+            if (i > 0) {
+                assertThat(chunks.get(i)[0]).isEqualTo(chunks.get(i - 1)[1]);
+            }
+        }
+    }
+}
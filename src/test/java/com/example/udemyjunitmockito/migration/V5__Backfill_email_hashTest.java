@@ -0,0 +1,56 @@
+package com.example.udemyjunitmockito.migration;
+
+import com.example.udemyjunitmockito.model.EmailKey;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class V5__Backfill_email_hashTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:backfill;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, " +
+                "email_normalized VARCHAR(255), email_hash BIGINT)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void givenRowsWithoutHash_whenMigrate_thenFillNormalizedEmailAndHash() throws Exception {
+        // given
+        for (int i = 0; i < 2500; i++) {
+            jdbcTemplate.update("INSERT INTO employees (first_name, last_name, email) VALUES ('Jan', 'Kowalski', ?)",
+                    "Employee" + i + "@Gmail.com");
+        }
+        Context context = mock(Context.class);
+        // when
+        try (Connection connection = dataSource.getConnection()) {
+            given(context.getConnection()).willReturn(connection);
+            new V5__Backfill_email_hash().migrate(context);
+        }
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE email_hash IS NULL", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT email_hash FROM employees WHERE email = 'Employee7@Gmail.com'", Long.class))
+                .isEqualTo(EmailKey.hash("employee7@gmail.com"));
+        assertThat(jdbcTemplate.queryForObject("SELECT email_normalized FROM employees WHERE email = 'Employee7@Gmail.com'", String.class))
+                .isEqualTo("employee7@gmail.com");
+    }
+}
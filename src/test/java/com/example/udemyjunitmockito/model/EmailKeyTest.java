@@ -0,0 +1,42 @@
+package com.example.udemyjunitmockito.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailKeyTest {
+
+    @Test
+    public void givenEmailsDifferingInCaseAndSpaces_whenHash_thenReturnSameHash() {
+        // when
+        long hash = EmailKey.hash("ramesh@gmail.com");
+        long otherHash = EmailKey.hash(" Ramesh@GMAIL.com ");
+        // then
+        assertThat(otherHash).isEqualTo(hash);
+        assertThat(EmailKey.normalize(" Ramesh@GMAIL.com ")).isEqualTo("ramesh@gmail.com");
+    }
+
+    @Test
+    public void givenDifferentEmails_whenHash_thenReturnDifferentHashes() {
+        // when
+        long hash = EmailKey.hash("ramesh@gmail.com");
+        long otherHash = EmailKey.hash("ramesh@gmail.co");
+        // then
+        assertThat(otherHash).isNotEqualTo(hash);
+    }
+
+    @Test
+    public void givenEmployee_whenUpdateEmailKey_thenFillNormalizedEmailAndHash() {
+        // given
+        Employee employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("Ramesh@Gmail.com")
+                .build();
+        // when
+        employee.updateEmailKey();
+        // then
+        assertThat(employee.getEmailNormalized()).isEqualTo("ramesh@gmail.com");
+        assertThat(employee.getEmailHash()).isEqualTo(EmailKey.hash("ramesh@gmail.com"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobStatus;
+import com.example.udemyjunitmockito.model.BulkJobType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class BulkJobRepositoryTest {
+
+    @Autowired
+    private BulkJobRepository jobRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void givenQueuedJob_whenClaimQueuedTwice_thenOnlyFirstClaimSucceeds() {
+        // given
+        jobRepository.saveAndFlush(job(BulkJobStatus.QUEUED, null));
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        // when
+        int first = jobRepository.claimQueued("job-1", "instance-1", now, now.minusSeconds(30), BulkJobStatus.QUEUED, BulkJobStatus.RUNNING);
+        int second = jobRepository.claimQueued("job-1", "instance-1", now, now.minusSeconds(30), BulkJobStatus.QUEUED, BulkJobStatus.RUNNING);
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bulk_jobs WHERE id = 'job-1'", String.class))
+                .isEqualTo(BulkJobStatus.RUNNING.name());
+    }
+
+    @Test
+    public void givenInterruptedRunningJob_whenClaimRunningTwiceWithSameStartedAt_thenOnlyFirstClaimSucceedsAndResetsProgress() {
+        // given
+        Instant startedAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        BulkJob job = job(BulkJobStatus.RUNNING, startedAt);
+        job.setCompletedPartitions(3);
+        job.setAffectedRows(42);
+        jobRepository.saveAndFlush(job);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        // when
+        int first = jobRepository.claimRunning("job-1", startedAt, "instance-1", now, now.minusSeconds(30), BulkJobStatus.RUNNING);
+        int second = jobRepository.claimRunning("job-1", startedAt, "instance-2", now.plusMillis(1), now.minusSeconds(30), BulkJobStatus.RUNNING);
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT affected_rows FROM bulk_jobs WHERE id = 'job-1'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT completed_partitions FROM bulk_jobs WHERE id = 'job-1'", Integer.class)).isZero();
+    }
+
+    @Test
+    public void givenRunningJobWithLiveLease_whenClaimRunning_thenLeaveItToItsOwner() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant startedAt = now.minus(1, ChronoUnit.MINUTES);
+        BulkJob job = job(BulkJobStatus.RUNNING, startedAt);
+        job.setOwnerId("instance-1");
+        job.setHeartbeatAt(now.minusSeconds(1));
+        jobRepository.saveAndFlush(job);
+        // when
+        int live = jobRepository.claimRunning("job-1", startedAt, "instance-2", now, now.minusSeconds(30), BulkJobStatus.RUNNING);
+        int expired = jobRepository.claimRunning("job-1", startedAt, "instance-2", now.plusSeconds(60), now.plusSeconds(30), BulkJobStatus.RUNNING);
+        // then
+        assertThat(live).isZero();
+        assertThat(expired).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT owner_id FROM bulk_jobs WHERE id = 'job-1'", String.class)).isEqualTo("instance-2");
+    }
+
+    @Test
+    public void givenJobCancelledByAnotherInstance_whenOwnerWritesProgressAndFinishes_thenKeepCancelledStatus() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        BulkJob job = job(BulkJobStatus.RUNNING, now);
+        job.setOwnerId("instance-1");
+        job.setHeartbeatAt(now);
+        jobRepository.saveAndFlush(job);
+        jdbcTemplate.update("UPDATE bulk_jobs SET status = 'CANCELLED', cancel_requested = TRUE WHERE id = 'job-1'");
+        // when
+        int progress = jobRepository.updateProgress("job-1", "instance-1", 4, 2, 0, 10L, null, now.plusSeconds(1));
+        int finished = jobRepository.finish("job-1", "instance-1", BulkJobStatus.COMPLETED, now.plusSeconds(2), BulkJobStatus.RUNNING);
+        // then
+        assertThat(progress).isEqualTo(1);
+        assertThat(finished).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bulk_jobs WHERE id = 'job-1'", String.class))
+                .isEqualTo(BulkJobStatus.CANCELLED.name());
+        assertThat(jdbcTemplate.queryForObject("SELECT affected_rows FROM bulk_jobs WHERE id = 'job-1'", Long.class)).isEqualTo(10L);
+    }
+
+    @Test
+    public void givenCancelRequest_whenJobHasLiveOwner_thenOnlyFlagItUntilLeaseExpires() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        BulkJob job = job(BulkJobStatus.RUNNING, now);
+        job.setOwnerId("instance-1");
+        job.setHeartbeatAt(now);
+        jobRepository.saveAndFlush(job);
+        List<BulkJobStatus> active = List.of(BulkJobStatus.QUEUED, BulkJobStatus.RUNNING);
+        // when
+        int flagged = jobRepository.requestCancel("job-1", active);
+        int cancelledWhileOwned = jobRepository.cancelAbandoned("job-1", now, now.minusSeconds(30), active, BulkJobStatus.CANCELLED);
+        // then
+        assertThat(flagged).isEqualTo(1);
+        assertThat(cancelledWhileOwned).isZero();
+        assertThat(jobRepository.isCancelRequested("job-1")).isTrue();
+        assertThat(jobRepository.cancelAbandoned("job-1", now.plusSeconds(60), now.plusSeconds(30), active, BulkJobStatus.CANCELLED))
+                .isEqualTo(1);
+    }
+
+    private static BulkJob job(BulkJobStatus status, Instant startedAt) {
+        return BulkJob.builder()
+                .id("job-1")
+                .type(BulkJobType.PURGE_EMAIL_DOMAIN)
+                .status(status)
+                .sourceDomain("gmail.com")
+                .createdAt(Instant.now())
+                .startedAt(startedAt)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.migration.V5__Backfill_email_hash;
+import com.example.udemyjunitmockito.model.EmailKey;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads MySQL with employees and compares lookups through uk_employees_email_normalized with lookups through
+ * idx_employees_email_hash: the plan MySQL picks, the size of each index and the lookup latency.
+ * Run it with {@code mvn test -Pbenchmark}; {@code -Dbenchmark.rows} and
+ * {@code -Dbenchmark.iterations} change the table size and the number of timed lookups.
+ */
+@Tag("benchmark")
+@Testcontainers
+class EmployeeEmailLookupBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20_000);
+    private static final int BATCH_SIZE = 5_000;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("password")
+            .withDatabaseName("ems");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void loadEmployees() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl() + "?rewriteBatchedStatements=true", MYSQL.getUsername(), MYSQL.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/mysql")
+                .javaMigrations(new V5__Backfill_email_hash())
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int index = from; index < Math.min(ROWS, from + BATCH_SIZE); index++) {
+                String email = email(index);
+                batch.add(new Object[]{"First" + index, "Last" + index, email, EmailKey.normalize(email), EmailKey.hash(email)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO employees (first_name, last_name, email, email_normalized, email_hash) " +
+                    "VALUES (?, ?, ?, ?, ?)", batch);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE employees");
+    }
+
+    @Test
+    public void givenLoadedTable_whenLookingUpByEmail_thenHashIndexIsUsedAndReported() {
+        String email = email(ROWS / 2);
+        long hash = EmailKey.hash(email);
+
+        String combinedPlan = explainKey("SELECT * FROM employees WHERE email_hash = ? AND email_normalized = ? AND deleted_at IS NULL",
+                hash, EmailKey.normalize(email));
+        String hashPlan = explainKey("SELECT * FROM employees WHERE email_hash = ? AND deleted_at IS NULL", hash);
+
+        Result byEmail = measure("email_normalized = ? (unique)", iteration ->
+                assertThat(jdbcTemplate.queryForList("SELECT * FROM employees WHERE email_normalized = ? AND deleted_at IS NULL",
+                        EmailKey.normalize(email(iteration * 7919 % ROWS)))).hasSize(1));
+        Result byHash = measure("email_hash = ? + recheck", iteration -> {
+            String lookedUp = email(iteration * 7919 % ROWS);
+            assertThat(jdbcTemplate.queryForList("SELECT * FROM employees WHERE email_hash = ? AND deleted_at IS NULL",
+                    EmailKey.hash(lookedUp))).filteredOn(row -> EmailKey.normalize(lookedUp).equals(row.get("email_normalized"))).hasSize(1);
+        });
+
+        System.out.println(String.format("%nrows: %d", ROWS));
+        System.out.println("EXPLAIN email_hash AND email_normalized: key=" + combinedPlan);
+        System.out.println("EXPLAIN email_hash only:      key=" + hashPlan);
+        for (Map<String, Object> index : jdbcTemplate.queryForList("SELECT index_name, stat_value * @@innodb_page_size AS bytes " +
+                "FROM mysql.innodb_index_stats WHERE database_name = DATABASE() AND table_name = 'employees' " +
+                "AND stat_name = 'size' ORDER BY index_name")) {
+            System.out.println(String.format("%-32s %12d KiB", index.get("index_name"), ((Number) index.get("bytes")).longValue() / 1024));
+        }
+        System.out.println(String.format("%n%-32s %10s %10s %10s %12s", "lookup", "p50 us", "p99 us", "max us", "lookups/s"));
+        System.out.println(byEmail);
+        System.out.println(byHash);
+
+        assertThat(hashPlan).isEqualTo("idx_employees_email_hash");
+    }
+
+    private static String email(int index) {
+        return "employee" + index + "@company" + (index % 100) + ".example.com";
+    }
+
+    private static String explainKey(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, (rs, rowNum) -> rs.getString("key"), args);
+    }
+
+    private static Result measure(String name, IntConsumer lookup) {
+        for (int iteration = 0; iteration < Math.min(ITERATIONS, 1000); iteration++) {
+            lookup.accept(iteration);
+        }
+        long[] latencies = new long[ITERATIONS];
+        long start = System.nanoTime();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long lookupStart = System.nanoTime();
+            lookup.accept(iteration);
+            latencies[iteration] = System.nanoTime() - lookupStart;
+        }
+        return new Result(name, latencies, System.nanoTime() - start);
+    }
+
+    private static final class Result {
+        private final String name;
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        private Result(String name, long[] latencies, long elapsedNanos) {
+            this.name = name;
+            this.latencies = latencies.clone();
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(this.latencies);
+        }
+
+        private long percentileMicros(double percentile) {
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return TimeUnit.NANOSECONDS.toMicros(latencies[Math.max(index, 0)]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %10d %10d %10d %12.0f", name, percentileMicros(0.5), percentileMicros(0.99),
+                    TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]),
+                    latencies.length / (elapsedNanos / 1_000_000_000.0));
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.udemyjunitmockito.repository;
 
+import com.example.udemyjunitmockito.model.EmailKey;
 import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshot;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -18,6 +24,8 @@ class EmployeeRepositoryTest {
 
     @Autowired
     private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private Employee employee;
 
     @BeforeEach
@@ -77,6 +85,51 @@ class EmployeeRepositoryTest {
         assertThat(employeeFromDB).isNotNull();
     }
 
+    @Test
+    public void givenEmailHashCollision_whenFindByEmail_thenReturnOnlyMatchingEmail() {
+        // given
+        Employee colliding = Employee.builder()
+                .firstName("Julia")
+                .lastName("Wronek")
+                .email("wronek@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(colliding);
+        employeeRepository.flush();
+        jdbcTemplate.update("UPDATE employees SET email_hash = ? WHERE id = ?", EmailKey.hash(employee.getEmail()), colliding.getId());
+        // when
+        Optional<Employee> found = employeeRepository.findByEmail(employee.getEmail());
+        List<Employee> foundIn = employeeRepository.findByEmailIn(List.of(employee.getEmail()));
+        // then
+        assertThat(found).map(Employee::getId).contains(employee.getId());
+        assertThat(foundIn).extracting(Employee::getId).containsExactly(employee.getId());
+    }
+
+    @Test
+    public void givenStoredEmail_whenFindByEmailInOtherCase_thenReturnStoredEmployee() {
+        // given
+        employeeRepository.saveAndFlush(employee);
+        // when
+        Optional<Employee> found = employeeRepository.findByEmail("Ramesh@Gmail.COM");
+        List<Employee> foundIn = employeeRepository.findByEmailIn(List.of("RAMESH@gmail.com"));
+        // then
+        assertThat(found).map(Employee::getId).contains(employee.getId());
+        assertThat(foundIn).extracting(Employee::getId).containsExactly(employee.getId());
+    }
+
+    @Test
+    public void givenStoredEmail_whenSaveSameEmailInOtherCase_thenRejectByUniqueKey() {
+        // given
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicate = Employee.builder()
+                .firstName("Other")
+                .lastName("Ramesh")
+                .email("Ramesh@Gmail.com")
+                .build();
+        // when / then
+        assertThrows(DataIntegrityViolationException.class, () -> employeeRepository.saveAndFlush(duplicate));
+    }
+
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
         // given
@@ -141,4 +194,37 @@ class EmployeeRepositoryTest {
         assertThat(savedEmployee).isNotNull();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void givenEmployees_whenCountByEmailDomain_thenGroupByDomainAfterLastAtLikeSnapshot() {
+        // given
+        List<Employee> employees = List.of(
+                employee,
+                Employee.builder().firstName("Julia").lastName("Wronek").email("wronek@GMAIL.com").build(),
+                Employee.builder().firstName("Jan").lastName("Kowalski").email("\"jan@home\"@Example.org").build(),
+                Employee.builder().firstName("Anna").lastName("Nowak").email("nowak@example.org").build());
+        employeeRepository.saveAll(employees);
+        // when
+        List<EmployeeCount> counts = employeeRepository.countByEmailDomain();
+        // then
+        assertThat(counts).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactlyInAnyOrder(tuple("gmail.com", 2L), tuple("example.org", 2L));
+        assertThat(counts).allSatisfy(count ->
+                assertThat(EmployeeSnapshot.of(employees).countByEmailDomain()).containsEntry(count.getKey(), count.getCount()));
+    }
+
+    @Test
+    public void givenEmployees_whenCountByLastNameInitialAndFirstName_thenGroupInDatabase() {
+        // given
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Ramesh").lastName("rao").email("rao@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Julia").lastName("Wronek").email("wronek@gmail.com").build());
+        // when
+        List<EmployeeCount> initials = employeeRepository.countByLastNameInitial();
+        List<EmployeeCount> firstNames = employeeRepository.countByFirstName();
+        // then
+        assertThat(initials).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactlyInAnyOrder(tuple("R", 2L), tuple("W", 1L));
+        assertThat(firstNames).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactlyInAnyOrder(tuple("Ramesh", 2L), tuple("Julia", 1L));
+    }
+}
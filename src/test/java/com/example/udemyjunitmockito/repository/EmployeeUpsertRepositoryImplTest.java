@@ -0,0 +1,138 @@
+package com.example.udemyjunitmockito.repository;
+
+import com.example.udemyjunitmockito.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeUpsertRepositoryImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EmployeeUpsertRepositoryImpl upsertRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:upsert;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, " +
+                "email VARCHAR(255) NOT NULL, email_normalized VARCHAR(255) NOT NULL, email_hash BIGINT NOT NULL, deleted_at TIMESTAMP, " +
+                "CONSTRAINT uk_employees_email_normalized UNIQUE (email_normalized))");
+        upsertRepository = new EmployeeUpsertRepositoryImpl(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void givenNewEmployee_whenUpsert_thenInsertEmployee() {
+        // when
+        Employee storedEmployee = upsertRepository.upsert(employee("Ramesh", "ramesh@gmail.com"));
+        // then
+        assertThat(storedEmployee.getId()).isGreaterThan(0);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    public void givenExistingEmail_whenUpsertAll_thenUpdateExistingAndInsertNew() {
+        // given
+        Employee existing = upsertRepository.upsert(employee("Ramesh", "ramesh@gmail.com"));
+        // when
+        List<Employee> storedEmployees = upsertRepository.upsertAll(List.of(
+                employee("Updated", "ramesh@gmail.com"),
+                employee("Jan", "kowalski@gmail.com")));
+        // then
+        assertThat(storedEmployees).hasSize(2);
+        assertThat(storedEmployees.get(0).getId()).isEqualTo(existing.getId());
+        assertThat(storedEmployees.get(0).getFirstName()).isEqualTo("Updated");
+        assertThat(storedEmployees.get(1).getEmail()).isEqualTo("kowalski@gmail.com");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    public void givenSoftDeletedEmployee_whenUpsert_thenReviveEmployee() {
+        // given
+        Employee existing = upsertRepository.upsert(employee("Ramesh", "ramesh@gmail.com"));
+        jdbcTemplate.update("UPDATE employees SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", existing.getId());
+        // when
+        Employee storedEmployee = upsertRepository.upsert(employee("Updated", "ramesh@gmail.com"));
+        // then
+        assertThat(storedEmployee.getId()).isEqualTo(existing.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE deleted_at IS NULL", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    public void givenSameEmailTwice_whenUpsertAll_thenKeepLastWriteAndReturnSameRow() {
+        // when
+        List<Employee> storedEmployees = upsertRepository.upsertAll(List.of(
+                employee("Ramesh", "ramesh@gmail.com"),
+                employee("Updated", "ramesh@gmail.com")));
+        // then
+        assertThat(storedEmployees.get(0).getId()).isEqualTo(storedEmployees.get(1).getId());
+        assertThat(storedEmployees.get(1).getFirstName()).isEqualTo("Updated");
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM employees", String.class)).isEqualTo("Updated");
+    }
+
+    @Test
+    public void givenMixedCaseEmailsOnMySql_whenUpsertAll_thenMatchStoredRowsByNormalizedEmail() {
+        // given
+        JdbcTemplate mySqlTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:upsert-mysql;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        mySqlTemplate.execute("CREATE TABLE employees (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, " +
+                "email VARCHAR(255) NOT NULL, email_normalized VARCHAR(255) NOT NULL, email_hash BIGINT NOT NULL, deleted_at TIMESTAMP, " +
+                "CONSTRAINT uk_employees_email_normalized UNIQUE (email_normalized))");
+        EmployeeUpsertRepositoryImpl mySqlRepository =
+                new EmployeeUpsertRepositoryImpl(mySqlTemplate, EmployeeUpsertRepositoryImpl.UpsertDialect.MYSQL);
+        try {
+            // when
+            List<Employee> storedEmployees = mySqlRepository.upsertAll(List.of(
+                    employee("Ramesh", "RAMESH@gmail.com"),
+                    employee("Updated", "ramesh@gmail.com"),
+                    employee("Jan", "kowalski@gmail.com")));
+            // then
+            assertThat(storedEmployees).doesNotContainNull();
+            assertThat(storedEmployees.get(0).getId()).isEqualTo(storedEmployees.get(1).getId());
+            assertThat(storedEmployees.get(0).getFirstName()).isEqualTo("Updated");
+            assertThat(mySqlTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(2L);
+        } finally {
+            mySqlTemplate.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    public void givenEmailInDifferentCase_whenUpsert_thenUpdateExistingRow() {
+        // given
+        Employee existing = upsertRepository.upsert(employee("Ramesh", "ramesh@gmail.com"));
+        // when
+        Employee storedEmployee = upsertRepository.upsert(employee("Updated", "Ramesh@Gmail.com"));
+        // then
+        assertThat(storedEmployee.getId()).isEqualTo(existing.getId());
+        assertThat(storedEmployee.getFirstName()).isEqualTo("Updated");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    public void givenDatabaseProductNames_whenUpsertSqlFor_thenUseNativeSyntax() {
+        // then
+        assertThat(EmployeeUpsertRepositoryImpl.upsertSqlFor("MySQL")).contains("ON DUPLICATE KEY UPDATE");
+        assertThat(EmployeeUpsertRepositoryImpl.upsertSqlFor("PostgreSQL")).contains("ON CONFLICT (email_normalized) DO UPDATE").contains("RETURNING");
+        assertThat(EmployeeUpsertRepositoryImpl.upsertSqlFor("H2")).startsWith("SELECT").contains("FINAL TABLE (MERGE INTO");
+        assertThrows(UnsupportedOperationException.class, () -> EmployeeUpsertRepositoryImpl.upsertSqlFor("Oracle"));
+    }
+
+    private static Employee employee(String firstName, String email) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Ramesh")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncEmployeeServiceImplTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private ThreadPoolExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncEmployeeServiceImpl asyncEmployeeService;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        meterRegistry = new SimpleMeterRegistry();
+        asyncEmployeeService = new AsyncEmployeeServiceImpl(employeeService, executor, meterRegistry);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenEmployeeId_whenGetEmployeeById_thenCompleteWithEmployeeAndRecordQueueWait() {
+        // given
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        // when
+        Optional<Employee> foundEmployee = asyncEmployeeService.getEmployeeById(1L).join();
+        // then
+        assertThat(foundEmployee).contains(employee);
+        assertThat(meterRegistry.get("employee.async.queue.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenUpdatedEmployee_whenUpdateEmployee_thenCopyFieldsAndUpdate() {
+        // given
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        given(employeeService.updateEmployee(employee)).willReturn(employee);
+        Employee updatedEmployee = Employee.builder().firstName("Jan").lastName("Kowalski").email("kowalski@gmail.com").build();
+        // when
+        Optional<Employee> result = asyncEmployeeService.updateEmployee(1L, updatedEmployee).join();
+        // then
+        assertThat(result).isPresent();
+        assertThat(result.get().getFirstName()).isEqualTo("Jan");
+        assertThat(result.get().getEmail()).isEqualTo("kowalski@gmail.com");
+    }
+
+    @Test
+    public void givenBusyExecutorAndFullQueue_whenGetAllEmployees_thenThrowsRejectedExecutionException() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).given(employeeService).deleteEmployee(1L);
+        asyncEmployeeService.deleteEmployee(1L);
+        started.await();
+        asyncEmployeeService.deleteEmployee(1L);
+        // when
+        try {
+            assertThrows(RejectedExecutionException.class, () -> asyncEmployeeService.getAllEmployees());
+        } finally {
+            release.countDown();
+        }
+    }
+}
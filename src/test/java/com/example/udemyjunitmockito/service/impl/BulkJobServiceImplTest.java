@@ -0,0 +1,86 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.jobs.BulkJobExecutor;
+import com.example.udemyjunitmockito.model.BulkJob;
+import com.example.udemyjunitmockito.model.BulkJobStatus;
+import com.example.udemyjunitmockito.model.BulkJobType;
+import com.example.udemyjunitmockito.repository.BulkJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobServiceImplTest {
+
+    @Mock
+    private BulkJobRepository jobRepository;
+    @Mock
+    private BulkJobExecutor jobExecutor;
+    @InjectMocks
+    private BulkJobServiceImpl jobService;
+
+    private BulkJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = BulkJob.builder()
+                .id("job-1")
+                .type(BulkJobType.PURGE_EMAIL_DOMAIN)
+                .status(BulkJobStatus.RUNNING)
+                .sourceDomain("gmail.com")
+                .completedPartitions(3)
+                .affectedRows(42)
+                .createdAt(Instant.now())
+                .startedAt(Instant.now().minusSeconds(60))
+                .build();
+    }
+
+    @Test
+    public void givenInterruptedJobClaimedHere_whenResumeInterruptedJobs_thenStart() {
+        // given
+        given(jobRepository.findByStatusIn(anyCollection())).willReturn(List.of(job));
+        given(jobExecutor.claim(job)).willReturn(true);
+        // when
+        jobService.resumeInterruptedJobs();
+        // then
+        verify(jobExecutor).start(job);
+    }
+
+    @Test
+    public void givenJobOwnedByAnotherInstance_whenResumeInterruptedJobs_thenDoNotStartIt() {
+        // given
+        job.setStatus(BulkJobStatus.QUEUED);
+        given(jobRepository.findByStatusIn(anyCollection())).willReturn(List.of(job));
+        given(jobExecutor.claim(job)).willReturn(false);
+        // when
+        jobService.resumeInterruptedJobs();
+        // then
+        verify(jobExecutor, never()).start(any(BulkJob.class));
+    }
+
+    @Test
+    public void givenRunningJob_whenCancel_thenRequestCancelThroughTableAndReturnStoredJob() {
+        // given
+        given(jobRepository.findById("job-1")).willReturn(Optional.of(job));
+        // when
+        Optional<BulkJob> cancelled = jobService.cancel("job-1");
+        // then
+        verify(jobExecutor).requestCancel("job-1");
+        assertThat(cancelled).contains(job);
+        verify(jobRepository, never()).save(any(BulkJob.class));
+    }
+}
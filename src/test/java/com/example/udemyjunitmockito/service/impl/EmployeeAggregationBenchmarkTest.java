@@ -0,0 +1,129 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.model.AggregationMode;
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import com.example.udemyjunitmockito.service.EmployeeAggregationService;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshotStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares GROUP BY in the database with counting over the in-memory snapshot for each statistic.
+ * Run it with {@code mvn test -Pbenchmark}; {@code -Dbenchmark.rows} and
+ * {@code -Dbenchmark.iterations} change the table size and the number of timed calls.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:aggregation-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "employee.warm-up.enabled=false",
+        "employee.snapshot.enabled=true"})
+class EmployeeAggregationBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+    private static final int BATCH_SIZE = 5_000;
+
+    @Autowired
+    private EmployeeAggregationService aggregationService;
+    @Autowired
+    private EmployeeSnapshotStore snapshotStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int index = from; index < Math.min(ROWS, from + BATCH_SIZE); index++) {
+                String email = "employee" + index + "@Company" + (index % 50) + ".example.com";
+                batch.add(new Object[]{"First" + (index % 1000), "Last" + (char) ('A' + index % 26), email,
+                        EmailKey.normalize(email), EmailKey.hash(email)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO employees (first_name, last_name, email, email_normalized, email_hash) " +
+                    "VALUES (?, ?, ?, ?, ?)", batch);
+        }
+        snapshotStore.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM employees");
+    }
+
+    @Test
+    public void givenLoadedTable_whenAggregatingInDatabaseAndSnapshot_thenReportLatencyAndAgree() {
+        List<Result> results = new ArrayList<>();
+        results.add(measure("email domains", aggregationService::countByEmailDomain));
+        results.add(measure("last name initials", aggregationService::countByLastNameInitial));
+        results.add(measure("first names", aggregationService::countByFirstName));
+
+        System.out.println(String.format("%nrows: %d%n%-20s %-9s %10s %10s %10s", ROWS, "statistic", "mode", "p50 ms", "p99 ms", "max ms"));
+        results.forEach(System.out::println);
+    }
+
+    private static Result measure(String name, Function<AggregationMode, List<EmployeeCount>> aggregation) {
+        List<EmployeeCount> database = aggregation.apply(AggregationMode.DATABASE);
+        List<EmployeeCount> snapshot = aggregation.apply(AggregationMode.SNAPSHOT);
+        assertThat(snapshot).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(database);
+        return new Result(name, time(() -> aggregation.apply(AggregationMode.DATABASE)),
+                time(() -> aggregation.apply(AggregationMode.SNAPSHOT)));
+    }
+
+    private static long[] time(Runnable call) {
+        for (int iteration = 0; iteration < Math.min(ITERATIONS, 10); iteration++) {
+            call.run();
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            call.run();
+            latencies[iteration] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static final class Result {
+        private final String name;
+        private final long[] database;
+        private final long[] snapshot;
+
+        private Result(String name, long[] database, long[] snapshot) {
+            this.name = name;
+            this.database = database;
+            this.snapshot = snapshot;
+        }
+
+        private static String row(String name, String mode, long[] latencies) {
+            return String.format("%-20s %-9s %10.2f %10.2f %10.2f", name, mode, percentileMillis(latencies, 0.5),
+                    percentileMillis(latencies, 0.99), latencies[latencies.length - 1] / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        private static double percentileMillis(long[] latencies, double percentile) {
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return row(name, "database", database) + System.lineSeparator() + row(name, "snapshot", snapshot);
+        }
+    }
+}
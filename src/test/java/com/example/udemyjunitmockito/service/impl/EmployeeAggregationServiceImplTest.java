@@ -0,0 +1,80 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.model.AggregationMode;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeCount;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshot;
+import com.example.udemyjunitmockito.snapshot.EmployeeSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeAggregationServiceImplTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private ObjectProvider<EmployeeSnapshotStore> snapshotStoreProvider;
+    @Mock
+    private EmployeeSnapshotStore snapshotStore;
+
+    private EmployeeAggregationServiceImpl aggregationService;
+
+    @BeforeEach
+    void setUp() {
+        aggregationService = new EmployeeAggregationServiceImpl(employeeRepository, snapshotStoreProvider);
+    }
+
+    @Test
+    public void givenDatabaseMode_whenCountByEmailDomain_thenSortByCountThenKey() {
+        // given
+        given(employeeRepository.countByEmailDomain()).willReturn(List.of(
+                new EmployeeCount("yahoo.com", 1), new EmployeeCount("gmail.com", 3), new EmployeeCount("aol.com", 1)));
+        // when
+        List<EmployeeCount> counts = aggregationService.countByEmailDomain(AggregationMode.DATABASE);
+        // then
+        assertThat(counts).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactly(tuple("gmail.com", 3L), tuple("aol.com", 1L), tuple("yahoo.com", 1L));
+        verify(snapshotStoreProvider, never()).getIfAvailable();
+    }
+
+    @Test
+    public void givenSnapshotMode_whenCountByLastNameInitial_thenCountSnapshotWithoutDatabase() {
+        // given
+        given(snapshotStoreProvider.getIfAvailable()).willReturn(snapshotStore);
+        given(snapshotStore.current()).willReturn(EmployeeSnapshot.of(List.of(
+                Employee.builder().id(1L).firstName("Ramesh").lastName("Ramesh").email("ramesh@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Jan").lastName("rao").email("rao@gmail.com").build(),
+                Employee.builder().id(3L).firstName("Julia").lastName("Wronek").email("wronek@gmail.com").build())));
+        // when
+        List<EmployeeCount> counts = aggregationService.countByLastNameInitial(AggregationMode.SNAPSHOT);
+        // then
+        assertThat(counts).extracting(EmployeeCount::getKey, EmployeeCount::getCount)
+                .containsExactly(tuple("R", 2L), tuple("W", 1L));
+        verify(employeeRepository, never()).countByLastNameInitial();
+    }
+
+    @Test
+    public void givenSnapshotDisabled_whenCountByFirstNameFromSnapshot_thenThrowsException() {
+        // given
+        given(snapshotStoreProvider.getIfAvailable()).willReturn(null);
+        // when
+        assertThrows(IllegalStateException.class, () -> aggregationService.countByFirstName(AggregationMode.SNAPSHOT));
+        // then
+        verify(employeeRepository, never()).countByFirstName();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.coherence.EmployeeCache;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.exception.BatchOperationException;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.model.EmployeeOperation;
+import com.example.udemyjunitmockito.model.EmployeeOperationResult;
+import com.example.udemyjunitmockito.model.EmployeeOperationType;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeBatchServiceImplTest {
+
+    @InjectMocks
+    private EmployeeBatchServiceImpl batchService;
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeChangeRingBuffer changeBuffer;
+    @Mock
+    private EmployeeChangeLog changeLog;
+    @Mock
+    private EmployeeCache employeeCache;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+    }
+
+    @Test
+    public void givenMixedOperations_whenExecuteBatch_thenApplyAllOperations() {
+        // given
+        Employee newEmployee = Employee.builder()
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("kowalski@gmail.com")
+                .build();
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("BlaBla")
+                .email("ramesh@gmail.com")
+                .build();
+        given(employeeRepository.findAllById(anyIterable())).willReturn(List.of(employee));
+        given(employeeRepository.findByEmailIn(anyCollection())).willReturn(List.of(employee));
+        given(employeeRepository.saveAll(anyIterable())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(created -> created.setId(2L));
+            return employees;
+        });
+        // when
+        List<EmployeeOperationResult> results = batchService.executeBatch(List.of(
+                new EmployeeOperation(EmployeeOperationType.CREATE, null, newEmployee),
+                new EmployeeOperation(EmployeeOperationType.UPDATE, 1L, updatedEmployee)));
+        // then
+        assertThat(results).allMatch(EmployeeOperationResult::isSuccess);
+        assertThat(results.get(0).getEmployee().getId()).isEqualTo(2L);
+        assertThat(employee.getLastName()).isEqualTo("BlaBla");
+        verify(changeBuffer, times(1)).publish(EmployeeChangeType.CREATED, 2L, newEmployee);
+    }
+
+    @Test
+    public void givenMissingEmployee_whenExecuteBatch_thenRejectWholeBatch() {
+        // given
+        given(employeeRepository.findAllById(anyIterable())).willReturn(Collections.emptyList());
+        given(employeeRepository.findByEmailIn(anyCollection())).willReturn(Collections.emptyList());
+        // when
+        BatchOperationException exception = assertThrows(BatchOperationException.class, () -> batchService.executeBatch(List.of(
+                new EmployeeOperation(EmployeeOperationType.DELETE, 1L, null),
+                new EmployeeOperation(EmployeeOperationType.CREATE, null, employee))));
+        // then
+        assertThat(exception.getResults().get(0).isSuccess()).isFalse();
+        assertThat(exception.getResults().get(1).isSuccess()).isTrue();
+        verify(employeeRepository, never()).saveAll(anyIterable());
+        verify(employeeRepository, never()).softDeleteAllById(any());
+    }
+
+    @Test
+    public void givenDuplicateEmailsInBatch_whenExecuteBatch_thenRejectSecondCreate() {
+        // given
+        given(employeeRepository.findAllById(anyIterable())).willReturn(Collections.emptyList());
+        given(employeeRepository.findByEmailIn(anyCollection())).willReturn(Collections.emptyList());
+        // when
+        BatchOperationException exception = assertThrows(BatchOperationException.class, () -> batchService.executeBatch(List.of(
+                new EmployeeOperation(EmployeeOperationType.CREATE, null, employee),
+                new EmployeeOperation(EmployeeOperationType.CREATE, null, Employee.builder()
+                        .firstName("Ramesh")
+                        .lastName("Fadatare")
+                        .email("Ramesh@Gmail.com")
+                        .build()))));
+        // then
+        assertThat(exception.getResults().get(1).getMessage()).isEqualTo("Employee already exist with given email:Ramesh@Gmail.com");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.model.EmailKey;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.service.EmployeeService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + EmployeeServiceImplRoutingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "employee.warm-up.enabled=false",
+        "employee.datasource.routing.enabled=true",
+        "employee.datasource.routing.lag-query=SELECT 0",
+        "employee.datasource.routing.replicas[0].url=" + EmployeeServiceImplRoutingTest.REPLICA_URL,
+        "employee.datasource.routing.replicas[0].username=sa",
+        "employee.datasource.routing.replicas[0].password="})
+class EmployeeServiceImplRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @AfterAll
+    static void dropDatabases() {
+        new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", "")).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void givenEmailOnlyOnPrimary_whenSaveEmployee_thenDuplicateCheckReadsPrimary() {
+        // given
+        JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+        primary.update("INSERT INTO employees (first_name, last_name, email, email_normalized, email_hash) VALUES (?, ?, ?, ?, ?)",
+                "Ramesh", "Ramesh", "ramesh@gmail.com", EmailKey.normalize("ramesh@gmail.com"), EmailKey.hash("ramesh@gmail.com"));
+        long id = primary.queryForObject("SELECT id FROM employees WHERE email = 'ramesh@gmail.com'", Long.class);
+        Employee employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.saveEmployee(employee));
+        // then
+        assertThat(employeeService.getEmployeeById(id)).isEmpty();
+    }
+}
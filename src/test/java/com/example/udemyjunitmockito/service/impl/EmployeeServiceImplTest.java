@@ -1,7 +1,12 @@
 package com.example.udemyjunitmockito.service.impl;
 
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.coherence.EmployeeCache;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
 import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.groupcommit.EmployeeGroupCommitter;
 import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
 import com.example.udemyjunitmockito.repository.EmployeeRepository;
 import com.example.udemyjunitmockito.service.EmployeeService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,12 +15,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +44,16 @@ class EmployeeServiceImplTest {
     private EmployeeServiceImpl employeeService;
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeChangeRingBuffer changeBuffer;
+    @Mock
+    private EmployeeGroupCommitter groupCommitter;
+    @Mock
+    private EmployeeChangeLog changeLog;
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(new ConcurrentMapCacheManager(), true);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
 
     private Employee employee;
 
@@ -130,4 +152,71 @@ class EmployeeServiceImplTest {
         verify(employeeRepository, times(1)).deleteById(EMPLOYEE_ID);
     }
 
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenPublishDeletedEvent() {
+        // given
+        willDoNothing().given(employeeRepository).deleteById(EMPLOYEE_ID);
+        // when
+        employeeService.deleteEmployee(EMPLOYEE_ID);
+        // then
+        verify(changeBuffer, times(1)).publish(EmployeeChangeType.DELETED, EMPLOYEE_ID, null);
+    }
+
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeByIdTwice_thenLoadFromRepositoryOnce() {
+        // given
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(EMPLOYEE_ID).get().setFirstName("Changed");
+        // when
+        Employee cachedEmployee = employeeService.getEmployeeById(EMPLOYEE_ID).get();
+        // then
+        assertThat(cachedEmployee.getFirstName()).isEqualTo("Ramesh");
+        verify(employeeRepository, times(1)).findById(EMPLOYEE_ID);
+    }
+
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenAppendChangeAndEvict() {
+        // given
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(employee), Optional.empty());
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+        // when
+        employeeService.deleteEmployee(EMPLOYEE_ID);
+        // then
+        verify(changeLog, times(1)).append(EMPLOYEE_ID, EmployeeChangeType.DELETED);
+        assertThat(employeeService.getEmployeeById(EMPLOYEE_ID)).isEmpty();
+    }
+
+    @Test
+    public void givenActiveTransaction_whenUpdateEmployee_thenEvictAndPublishOnlyAfterCommit() {
+        // given
+        given(employeeRepository.save(employee)).willReturn(employee);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            employeeService.updateEmployee(employee);
+            // then
+            verify(changeLog, times(1)).append(EMPLOYEE_ID, EmployeeChangeType.UPDATED);
+            verify(employeeCache, never()).evict(EMPLOYEE_ID);
+            verify(changeBuffer, never()).publish(any(), anyLong(), any());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            verify(employeeCache, times(1)).evict(EMPLOYEE_ID);
+            verify(changeBuffer, times(1)).publish(EmployeeChangeType.UPDATED, EMPLOYEE_ID, employee);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void givenGroupCommitEnabled_whenSaveEmployee_thenSubmitToGroupCommitter() {
+        // given
+        given(groupCommitter.isEnabled()).willReturn(true);
+        given(groupCommitter.submit(employee)).willReturn(CompletableFuture.completedFuture(employee));
+        // when
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+        // then
+        assertThat(savedEmployee.getId()).isEqualTo(1L);
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
 }
\ No newline at end of file
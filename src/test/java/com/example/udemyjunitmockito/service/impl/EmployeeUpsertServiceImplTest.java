@@ -0,0 +1,75 @@
+package com.example.udemyjunitmockito.service.impl;
+
+import com.example.udemyjunitmockito.changefeed.EmployeeChangeRingBuffer;
+import com.example.udemyjunitmockito.coherence.EmployeeCache;
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeUpsertServiceImplTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeChangeRingBuffer changeBuffer;
+    @Mock
+    private EmployeeChangeLog changeLog;
+    @Mock
+    private EmployeeCache employeeCache;
+    @InjectMocks
+    private EmployeeUpsertServiceImpl upsertService;
+
+    @Test
+    public void givenNewAndExistingEmails_whenUpsertEmployees_thenPublishCreatedAndUpdated() {
+        // given
+        Employee existing = employee(1L, "ramesh@gmail.com");
+        Employee created = employee(2L, "kowalski@gmail.com");
+        List<Employee> employees = List.of(employee(0L, "Ramesh@Gmail.com"), employee(0L, "kowalski@gmail.com"));
+        given(employeeRepository.findByEmailIn(anyCollection())).willReturn(List.of(existing));
+        given(employeeRepository.upsertAll(employees)).willReturn(List.of(existing, created));
+        // when
+        upsertService.upsertEmployees(employees);
+        // then
+        verify(changeLog).appendAll(List.of(1L), EmployeeChangeType.UPDATED);
+        verify(changeLog).appendAll(List.of(2L), EmployeeChangeType.CREATED);
+        verify(changeBuffer).publish(EmployeeChangeType.UPDATED, 1L, existing);
+        verify(changeBuffer).publish(EmployeeChangeType.CREATED, 2L, created);
+    }
+
+    @Test
+    public void givenNewEmail_whenUpsertEmployee_thenPublishCreated() {
+        // given
+        Employee employee = employee(0L, "ramesh@gmail.com");
+        Employee stored = employee(1L, "ramesh@gmail.com");
+        given(employeeRepository.findByEmailIn(anyCollection())).willReturn(List.of());
+        given(employeeRepository.upsertAll(List.of(employee))).willReturn(List.of(stored));
+        // when
+        upsertService.upsertEmployee(employee);
+        // then
+        verify(changeLog).appendAll(List.of(1L), EmployeeChangeType.CREATED);
+        verify(employeeCache).evict(1L);
+        verify(changeBuffer).publish(EmployeeChangeType.CREATED, 1L, stored);
+    }
+
+    private static Employee employee(long id, String email) {
+        return Employee.builder()
+                .id(id)
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.udemyjunitmockito.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardDataSourcesTest {
+
+    @Test
+    public void givenShardPools_whenClose_thenCloseEveryPool() {
+        // given
+        HikariDataSource first = dataSource("shard-close-0");
+        HikariDataSource second = dataSource("shard-close-1");
+        ShardDataSources shardDataSources = new ShardDataSources(List.of(first, second));
+        // when
+        shardDataSources.close();
+        // then
+        assertThat(first.isClosed()).isTrue();
+        assertThat(second.isClosed()).isTrue();
+    }
+
+    @Test
+    public void givenShardPools_whenMigrate_thenCreateEmployeesTableInEveryShardThroughFlyway() {
+        // given
+        try (ShardDataSources shardDataSources = new ShardDataSources(
+                List.of(dataSource("shard-migrate-0"), dataSource("shard-migrate-1")))) {
+            // when
+            shardDataSources.migrate();
+            // then
+            for (DataSource shard : shardDataSources.getAll()) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Integer.class)).isZero();
+                assertThat(jdbcTemplate.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\"", String.class))
+                        .contains("1");
+            }
+        }
+    }
+
+    private static HikariDataSource dataSource(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name);
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        return dataSource;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.udemyjunitmockito.sharding;
+
+import com.example.udemyjunitmockito.exception.ResourceNotFoundException;
+import com.example.udemyjunitmockito.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedEmployeeStoreTest {
+
+    private static final int SHARDS = 3;
+
+    private DataSource global;
+    private List<DataSource> shards;
+    private ExecutorService executor;
+    private ShardedEmployeeStore employeeStore;
+
+    @BeforeEach
+    void setUp() {
+        global = embeddedDatabase("global");
+        shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(embeddedDatabase("shard" + i));
+        }
+        executor = Executors.newFixedThreadPool(SHARDS);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V3__create_employee_emails.sql")).execute(global);
+        shards.forEach(ShardDataSources::migrate);
+        employeeStore = new ShardedEmployeeStore(global, shards, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        new JdbcTemplate(global).execute("DROP ALL OBJECTS");
+        shards.forEach(shard -> new JdbcTemplate(shard).execute("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    public void givenEmployees_whenSave_thenStoreEachEmployeeInItsShardOnly() {
+        // when
+        List<Employee> savedEmployees = saveEmployees(30);
+        // then
+        int total = 0;
+        for (int i = 0; i < SHARDS; i++) {
+            List<Long> ids = new JdbcTemplate(shards.get(i)).queryForList("SELECT id FROM employees", Long.class);
+            int shard = i;
+            assertThat(ids).allMatch(id -> employeeStore.shardOf(id) == shard);
+            total += ids.size();
+        }
+        assertThat(total).isEqualTo(savedEmployees.size());
+    }
+
+    @Test
+    public void givenEmployees_whenFindAll_thenMergeAllShardsOrderedById() {
+        // given
+        saveEmployees(12);
+        // when
+        List<Employee> employees = employeeStore.findAll();
+        // then
+        assertThat(employees).hasSize(12);
+        assertThat(employees).extracting(Employee::getId).isSorted();
+    }
+
+    @Test
+    public void givenExistingEmail_whenSave_thenThrowsException() {
+        // given
+        saveEmployees(1);
+        Employee duplicate = Employee.builder()
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("employee0@gmail.com")
+                .build();
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> employeeStore.save(duplicate));
+        // then
+        assertThat(employeeStore.findAll()).hasSize(1);
+    }
+
+    @Test
+    public void givenSavedEmployee_whenDelete_thenRemoveFromShardAndEmailDirectory() {
+        // given
+        Employee employee = saveEmployees(1).get(0);
+        // when
+        employeeStore.deleteById(employee.getId());
+        // then
+        assertThat(employeeStore.findById(employee.getId())).isEmpty();
+        assertThat(new JdbcTemplate(global).queryForObject("SELECT COUNT(*) FROM employee_emails WHERE email = 'employee0@gmail.com'",
+                Long.class)).isZero();
+    }
+
+    @Test
+    public void givenSavedEmployee_whenUpdate_thenUpdateShardAndEmailDirectory() {
+        // given
+        Employee employee = saveEmployees(1).get(0);
+        employee.setEmail("updated@gmail.com");
+        // when
+        employeeStore.update(employee);
+        // then
+        assertThat(employeeStore.findById(employee.getId())).map(Employee::getEmail).contains("updated@gmail.com");
+        assertThat(globalEmail(employee.getId())).isEqualTo("updated@gmail.com");
+    }
+
+    @Test
+    public void givenNonExistingId_whenUpdate_thenThrowsExceptionAndKeepDirectory() {
+        // given
+        Employee missing = Employee.builder()
+                .id(999L)
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("kowalski@gmail.com")
+                .build();
+        // when
+        assertThrows(EmptyResultDataAccessException.class, () -> employeeStore.update(missing));
+        // then
+        assertThat(new JdbcTemplate(global).queryForObject("SELECT COUNT(*) FROM employee_emails", Long.class)).isZero();
+    }
+
+    @Test
+    public void givenShardUpdateFails_whenUpdate_thenRestorePreviousEmail() {
+        // given
+        Employee employee = saveEmployees(1).get(0);
+        new JdbcTemplate(shards.get(employeeStore.shardOf(employee.getId()))).execute("DROP TABLE employees");
+        employee.setEmail("updated@gmail.com");
+        // when
+        assertThrows(DataAccessException.class, () -> employeeStore.update(employee));
+        // then
+        assertThat(globalEmail(employee.getId())).isEqualTo("employee0@gmail.com");
+    }
+
+    @Test
+    public void givenEmailOfAnotherEmployee_whenUpdate_thenThrowsExceptionAndKeepShard() {
+        // given
+        List<Employee> employees = saveEmployees(2);
+        Employee employee = employees.get(0);
+        employee.setEmail("employee1@gmail.com");
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> employeeStore.update(employee));
+        // then
+        assertThat(employeeStore.findById(employee.getId())).map(Employee::getEmail).contains("employee0@gmail.com");
+    }
+
+    private String globalEmail(long id) {
+        return new JdbcTemplate(global).queryForObject("SELECT email FROM employee_emails WHERE id = ?", String.class, id);
+    }
+
+    private List<Employee> saveEmployees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(employeeStore.save(Employee.builder()
+                    .firstName("Ramesh")
+                    .lastName("Ramesh")
+                    .email("employee" + i + "@gmail.com")
+                    .build()));
+        }
+        return employees;
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
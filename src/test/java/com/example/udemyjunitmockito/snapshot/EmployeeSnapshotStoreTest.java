@@ -0,0 +1,97 @@
+package com.example.udemyjunitmockito.snapshot;
+
+import com.example.udemyjunitmockito.coherence.EmployeeChangeLog;
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.EmployeeChangeLogEntry;
+import com.example.udemyjunitmockito.model.EmployeeChangeType;
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSnapshotStoreTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeChangeLog changeLog;
+
+    private EmployeeSnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshotStore = new EmployeeSnapshotStore(employeeRepository, changeLog, PAGE_SIZE, 60_000);
+        given(changeLog.lastSequence()).willReturn(10L);
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, PAGE_SIZE)))
+                .willReturn(List.of(employee(1L, "ramesh@gmail.com"), employee(5L, "kowalski@gmail.com")));
+        snapshotStore.rebuild();
+    }
+
+    @Test
+    public void givenUpdatedDeletedAndCreatedEmployees_whenRefresh_thenSnapshotReflectsAllChanges() {
+        // given
+        given(changeLog.readAfter(10L, PAGE_SIZE)).willReturn(List.of(
+                entry(11L, 1L, EmployeeChangeType.UPDATED),
+                entry(12L, 5L, EmployeeChangeType.DELETED),
+                entry(13L, 7L, EmployeeChangeType.CREATED)));
+        given(employeeRepository.findAllById(List.of(1L, 5L))).willReturn(List.of(employee(1L, "ramesh@example.com")));
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, PAGE_SIZE)))
+                .willReturn(List.of(employee(7L, "wronek@gmail.com")));
+        // when
+        snapshotStore.refresh();
+        // then
+        EmployeeSnapshot snapshot = snapshotStore.current();
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.findById(1L)).map(Employee::getEmail).contains("ramesh@example.com");
+        assertThat(snapshot.findById(5L)).isEmpty();
+        assertThat(snapshot.findById(7L)).isPresent();
+    }
+
+    @Test
+    public void givenChangeCommittedOutOfOrder_whenRefreshTwice_thenApplyEachChangeOnce() {
+        // given
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).willReturn(Collections.emptyList());
+        given(changeLog.readAfter(10L, PAGE_SIZE))
+                .willReturn(List.of(entry(12L, 5L, EmployeeChangeType.UPDATED)))
+                .willReturn(List.of(entry(11L, 1L, EmployeeChangeType.UPDATED), entry(12L, 5L, EmployeeChangeType.UPDATED)));
+        given(employeeRepository.findAllById(List.of(5L))).willReturn(List.of(employee(5L, "jan@gmail.com")));
+        given(employeeRepository.findAllById(List.of(1L))).willReturn(List.of(employee(1L, "ramesh@example.com")));
+        // when
+        snapshotStore.refresh();
+        snapshotStore.refresh();
+        // then
+        verify(employeeRepository).findAllById(List.of(5L));
+        verify(employeeRepository).findAllById(List.of(1L));
+        assertThat(snapshotStore.current().findById(1L)).map(Employee::getEmail).contains("ramesh@example.com");
+        assertThat(snapshotStore.current().findById(5L)).map(Employee::getEmail).contains("jan@gmail.com");
+    }
+
+    private static Employee employee(long id, String email) {
+        return Employee.builder()
+                .id(id)
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .email(email)
+                .build();
+    }
+
+    private static EmployeeChangeLogEntry entry(long sequence, long employeeId, EmployeeChangeType type) {
+        return new EmployeeChangeLogEntry(sequence, employeeId, type, Instant.now(), Instant.now());
+    }
+}
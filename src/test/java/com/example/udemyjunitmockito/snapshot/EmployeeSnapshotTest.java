@@ -0,0 +1,124 @@
+package com.example.udemyjunitmockito.snapshot;
+
+import com.example.udemyjunitmockito.model.Employee;
+import com.example.udemyjunitmockito.model.SnapshotFootprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeSnapshotTest {
+
+    private Employee employee;
+    private Employee employee1;
+
+    @BeforeEach
+    void setUp() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Ramesh")
+                .email("ramesh@gmail.com")
+                .build();
+        employee1 = Employee.builder()
+                .id(5L)
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("kowalski@gmail.com")
+                .build();
+    }
+
+    @Test
+    public void givenEmployees_whenFindById_thenReturnEmployeeObject() {
+        // given
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee, employee1));
+        // when
+        Optional<Employee> found = snapshot.findById(5L);
+        // then
+        assertThat(found).isPresent();
+        assertThat(found.get().getFirstName()).isEqualTo("Jan");
+        assertThat(found.get().getLastName()).isEqualTo("Kowalski");
+        assertThat(found.get().getEmail()).isEqualTo("kowalski@gmail.com");
+        assertThat(snapshot.findById(2L)).isEmpty();
+    }
+
+    @Test
+    public void givenSnapshot_whenAppend_thenReturnNewSnapshotWithAllEmployees() {
+        // given
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee));
+        // when
+        EmployeeSnapshot appended = snapshot.append(List.of(employee1));
+        // then
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(appended.size()).isEqualTo(2);
+        assertThat(appended.maxId()).isEqualTo(5L);
+        assertThat(appended.list(0, 10)).extracting(Employee::getEmail)
+                .containsExactly("ramesh@gmail.com", "kowalski@gmail.com");
+    }
+
+    @Test
+    public void givenChangedIds_whenReplace_thenUpdateDropAndInsertInIdOrder() {
+        // given
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee, employee1));
+        Employee updated = Employee.builder().id(5L).firstName("Jan").lastName("Kowalski").email("jan@gmail.com").build();
+        Employee restored = Employee.builder().id(3L).firstName("Julia").lastName("Wronek").email("wronek@gmail.com").build();
+        // when
+        EmployeeSnapshot replaced = snapshot.replace(List.of(1L, 3L, 5L), List.of(updated, restored));
+        // then
+        assertThat(replaced.list(0, 10)).extracting(Employee::getId).containsExactly(3L, 5L);
+        assertThat(replaced.findById(5L)).map(Employee::getEmail).contains("jan@gmail.com");
+        assertThat(snapshot.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenEmployeeWithLowerId_whenAppend_thenThrowsException() {
+        // given
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee1));
+        // when
+        assertThrows(IllegalArgumentException.class, () -> snapshot.append(List.of(employee)));
+    }
+
+    @Test
+    public void givenRepeatedNames_whenFootprint_thenSnapshotIsSmallerThanEntities() {
+        // given
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            employees.add(Employee.builder()
+                    .id(id)
+                    .firstName("Ramesh")
+                    .lastName("Kowalski")
+                    .email("employee" + id + "@gmail.com")
+                    .build());
+        }
+        // when
+        SnapshotFootprint footprint = EmployeeSnapshot.of(employees).footprint();
+        // then
+        assertThat(footprint.getEmployees()).isEqualTo(1000);
+        assertThat(footprint.getDistinctNames()).isEqualTo(2);
+        assertThat(footprint.getSnapshotBytes()).isLessThan(footprint.getEntityBytes());
+    }
+
+    @Test
+    public void givenEmployees_whenCountByEmailDomainAndLastNameInitial_thenReturnCounts() {
+        // given
+        Employee employee2 = Employee.builder()
+                .id(7L)
+                .firstName("Julia")
+                .lastName("kowalska")
+                .email("wronek@Example.com")
+                .build();
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee, employee1, employee2));
+        // when
+        Map<String, Long> domains = snapshot.countByEmailDomain();
+        Map<String, Long> initials = snapshot.countByLastNameInitial();
+        // then
+        assertThat(domains).containsOnly(Map.entry("gmail.com", 2L), Map.entry("example.com", 1L));
+        assertThat(initials).containsOnly(Map.entry("R", 1L), Map.entry("K", 2L));
+    }
+}
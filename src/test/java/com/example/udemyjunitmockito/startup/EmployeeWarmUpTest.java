@@ -0,0 +1,74 @@
+package com.example.udemyjunitmockito.startup;
+
+import com.example.udemyjunitmockito.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeWarmUpTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WarmUpHealthIndicator healthIndicator;
+    private StaticApplicationContext applicationContext;
+    private EmployeeWarmUp warmUp;
+
+    @BeforeEach
+    void setUp() {
+        healthIndicator = new WarmUpHealthIndicator(true);
+        applicationContext = new StaticApplicationContext();
+        warmUp = new EmployeeWarmUp(new ObjectMapper(), employeeRepository, transactionManager,
+                applicationContext, healthIndicator, 50, 5, 5);
+    }
+
+    @Test
+    public void givenWarmUpNotRun_whenHealth_thenOutOfService() {
+        // when
+        Status status = healthIndicator.health().getStatus();
+        // then
+        assertThat(status).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    public void givenIterations_whenRun_thenQueryRepositoryAndReportUp() throws Exception {
+        // when
+        warmUp.run(new DefaultApplicationArguments());
+        // then
+        verify(employeeRepository, times(5)).findById(-1L);
+        verify(employeeRepository, times(5)).findByEmail("warm-up@invalid");
+        assertThat(healthIndicator.isCompleted()).isTrue();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(healthIndicator.health().getDetails()).containsEntry("iterations", 50);
+    }
+
+    @Test
+    public void givenBulkLoaderRun_whenRun_thenSkipWarmUpAndReportUp() throws Exception {
+        // given
+        applicationContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("loader", Map.of("employee.loader.file", "/data/employees.csv")));
+        // when
+        warmUp.run(new DefaultApplicationArguments());
+        // then
+        verifyNoInteractions(employeeRepository);
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+}